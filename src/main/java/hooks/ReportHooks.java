@@ -1,6 +1,5 @@
 package hooks;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import cucumber.api.Scenario;
@@ -10,8 +9,18 @@ import listeners.OllamaStepListener;
 import net.serenitybdd.screenplay.actors.OnStage;
 import net.serenitybdd.screenplay.actors.OnlineCast;
 import net.thucydides.core.steps.StepEventBus;
+import utils.BufferCapturas;
+import utils.EscritorReportes;
 import utils.EstadoPrueba;
-import utils.WordAppium;
+import utils.GrabacionPantalla;
+import utils.InstantaneaEscenario;
+import utils.MuestreoRecursos;
+import utils.PerfilConsumo;
+import utils.ScenarioContext;
+import utils.Telemetria;
+import utils.historial.HistorialEjecuciones;
+import utils.jfr.DestinoJfr;
+import utils.metricas.Metricas;
 
 /**
  * Hooks consolidados de Cucumber
@@ -19,23 +28,23 @@ import utils.WordAppium;
  * Responsabilidades:
  * - Inicializar actores de Serenity
  * - Registrar OllamaStepListener
- * - Generar reportes Word
- * - Tracking de pasos y estado
+ * - Generar reportes Word (en segundo plano, ver EscritorReportes)
+ * - Tracking de pasos y estado (en el ScenarioContext del hilo, seguro con escenarios en paralelo)
  */
 public class ReportHooks {
 
-  private static final List<String> pasosEjecutados = new ArrayList<>();
-  private static String lineaUsada = "Sin datos";
-  private static String ultimoPaso = "";
   private static boolean listenerRegistrado = false;
 
-  public static void registrarPaso(String paso) {
-    pasosEjecutados.add(paso);
-    ultimoPaso = paso;
+  public static int registrarPaso(String paso) {
+    return ScenarioContext.actual().registrarPaso(paso);
+  }
+
+  public static String ultimoPaso() {
+    return ScenarioContext.actual().getUltimoPaso();
   }
 
   public static void setLinea(String linea) {
-    lineaUsada = linea;
+    ScenarioContext.actual().setLinea(linea);
   }
 
   @Before(order = 0) // ✅ Ejecutar PRIMERO
@@ -44,11 +53,12 @@ public class ReportHooks {
     System.out.println("🚀 Iniciando escenario: " + scenario.getName());
     System.out.println("══════════════════════════════════════════════════════");
 
-    // 🔹 Inicializar estado de prueba
-    EstadoPrueba.inicio = System.currentTimeMillis();
-    pasosEjecutados.clear();
-    EstadoPrueba.fallo = false;
-    EstadoPrueba.pasoFallido = "";
+    // 🔹 Inicializar estado de prueba (contexto nuevo para el escenario de este hilo)
+    ScenarioContext contexto = ScenarioContext.iniciar(scenario.getName());
+    EstadoPrueba.reset();
+    // El primer tag del escenario etiqueta sus métricas
+    scenario.getSourceTagNames().stream().findFirst()
+            .ifPresent(tag -> contexto.getDatos().put(Metricas.DATO_TAG, tag));
 
    /* // 🔹 Registrar el listener de Ollama solo una vez
     if (!listenerRegistrado) {
@@ -63,45 +73,68 @@ public class ReportHooks {
       }
     }*/
 
+    // 🔹 Archivo JFR de este fork (solo con gradle -Pjfr)
+    DestinoJfr.asignar();
+
     // 🔹 Inicializar actores de Serenity
     OnStage.setTheStage(new OnlineCast());
+
+    // 🔹 Buffer circular de fotogramas (solo se persiste si el escenario falla o es @evidencia)
+    BufferCapturas.iniciar();
+
+    // 🔹 Muestreo de memoria, CPU y gráficos de la app (resumen por paso en las notas del reporte)
+    MuestreoRecursos.iniciar();
+
+    // 🔹 Consumo de red y batería (la instantánea inicial se espera; la final va en segundo plano)
+    PerfilConsumo.iniciar();
   }
 
   @After(order = 1) // ✅ Ejecutar DESPUÉS de otros @After
   public void generarReporteFinal(Scenario scenario) {
-    EstadoPrueba.fin = System.currentTimeMillis();
+    ScenarioContext contexto = ScenarioContext.actual();
+    EstadoPrueba.finalizar();
+    List<String> pasosEjecutados = contexto.getPasos();
 
     // Detectar fallo y último paso fallido
     if (scenario.isFailed()) {
-      EstadoPrueba.fallo = true;
-      EstadoPrueba.pasoFallido = !pasosEjecutados.isEmpty() ? ultimoPaso : "Paso no identificado";
+      EstadoPrueba.marcarFallo(!pasosEjecutados.isEmpty() ? contexto.getUltimoPaso() : "Paso no identificado");
     }
 
-    long duracionTotal = (EstadoPrueba.fin - EstadoPrueba.inicio) / 1000;
+    long duracionTotal = (EstadoPrueba.getFin() - EstadoPrueba.getInicio()) / 1000;
     long minutos = duracionTotal / 60;
     long segundos = duracionTotal % 60;
     String duracionFormato = minutos + " min " + segundos + " seg";
 
     String estadoFinal = scenario.isFailed() ? "FAILED" : "PASSED";
-    String pasoFallido = scenario.isFailed() ? EstadoPrueba.pasoFallido : null;
+    Metricas.escenario(scenario.isFailed(), EstadoPrueba.getFin() - EstadoPrueba.getInicio());
+    // Los pasos que siguen abiertos se cierran antes de que el historial cierre el lote del escenario
+    Telemetria.cerrarPasosAbiertos();
+    HistorialEjecuciones.escenario(scenario.getName(), scenario.isFailed(), EstadoPrueba.getFin() - EstadoPrueba.getInicio());
+    String pasoFallido = scenario.isFailed() ? EstadoPrueba.getPasoFallido() : null;
+
+    BufferCapturas.detener(scenario.getName(),
+            scenario.isFailed() || scenario.getSourceTagNames().contains(BufferCapturas.TAG_EVIDENCIA));
+
+    MuestreoRecursos.detener(scenario.getName());
+    PerfilConsumo.finalizar(scenario.getName());
 
-    WordAppium.generarReporte(
+    // En modo video se extraen aquí los fotogramas de cada paso
+    GrabacionPantalla.finalizar(scenario.getName(), scenario.isFailed());
+
+    // La instantánea es inmutable: el reporte se escribe en segundo plano mientras corre el siguiente escenario
+    EscritorReportes.enviar(InstantaneaEscenario.capturar(
             scenario.getName(),
             pasosEjecutados.toArray(new String[0]),
-            lineaUsada,
+            contexto.getLinea(),
             duracionFormato,
+            EstadoPrueba.getFin() - EstadoPrueba.getInicio(),
             pasoFallido,
-            estadoFinal);
+            estadoFinal));
 
     System.out.println("══════════════════════════════════════════════════════");
     System.out.println("🏁 Escenario finalizado: " + scenario.getName());
     System.out.println("   Estado: " + (scenario.isFailed() ? "❌ FAILED" : "✅ PASSED"));
     System.out.println("   Duración: " + duracionFormato);
     System.out.println("══════════════════════════════════════════════════════\n");
-
-    // Limpiar estado para el siguiente escenario
-    pasosEjecutados.clear();
-    EstadoPrueba.fallo = false;
-    EstadoPrueba.pasoFallido = "";
   }
 }
\ No newline at end of file
@@ -2,10 +2,10 @@ package interactions.comunes;
 
 import static net.serenitybdd.screenplay.matchers.WebElementStateMatchers.isEnabled;
 
+import interactions.wait.WaitForElement;
 import net.serenitybdd.screenplay.Actor;
 import net.serenitybdd.screenplay.Interaction;
 import net.serenitybdd.screenplay.targets.Target;
-import net.serenitybdd.screenplay.waits.WaitUntil;
 
 public class Enable implements Interaction {
 
@@ -17,6 +17,6 @@ public class Enable implements Interaction {
 
   @Override
   public <T extends Actor> void performAs(T actor) {
-    actor.attemptsTo(WaitUntil.the(element, isEnabled()).forNoMoreThan(10).seconds());
+    actor.attemptsTo(WaitForElement.the(element, isEnabled()).forNoMoreThan(10).seconds());
   }
 }
@@ -2,10 +2,10 @@ package interactions.comunes;
 
 import static net.serenitybdd.screenplay.matchers.WebElementStateMatchers.isVisible;
 
+import interactions.wait.WaitForElement;
 import net.serenitybdd.screenplay.Actor;
 import net.serenitybdd.screenplay.Interaction;
 import net.serenitybdd.screenplay.targets.Target;
-import net.serenitybdd.screenplay.waits.WaitUntil;
 
 public class Visible implements Interaction {
 
@@ -17,6 +17,6 @@ public class Visible implements Interaction {
 
   @Override
   public <T extends Actor> void performAs(T actor) {
-    actor.attemptsTo(WaitUntil.the(element, isVisible()).forNoMoreThan(15).seconds());
+    actor.attemptsTo(WaitForElement.the(element, isVisible()).forNoMoreThan(15).seconds());
   }
 }
@@ -0,0 +1,165 @@
+package interactions.wait;
+
+import io.appium.java_client.MobileBy;
+import io.appium.java_client.android.AndroidDriver;
+import net.serenitybdd.screenplay.Actor;
+import net.serenitybdd.screenplay.Interaction;
+import net.thucydides.core.annotations.Step;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import utils.AndroidObject;
+import utils.LatenciaLogin;
+import utils.MyDriver;
+import utils.Telemetria;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static net.serenitybdd.screenplay.Tasks.instrumented;
+import static userinterfaces.LoginPage.LBL_ENCABEZADO_USUARIO;
+import static userinterfaces.LoginPage.LOADING_ESPERA_UN_MOMENTO;
+import static utils.Constants.CONTINUAR;
+
+/**
+ * Toque final en CONTINUAR del login y espera de la pantalla de carga, midiendo la latencia de la app.
+ *
+ * Reemplaza a ClickElementByText(CONTINUAR) + WaitUntil(LOADING_ESPERA_UN_MOMENTO, isNotPresent). Con la
+ * espera implícita en 0 (al terminar vuelve a la de webdriver.timeouts.implicitlywait) se sondean los
+ * Target de LoginPage; cada observación se fecha en el punto medio de su comando (descuenta la latencia
+ * de ida y vuelta) y cada cambio se estima en el punto medio entre la última observación del estado
+ * anterior y la primera del nuevo, con la mitad de ese intervalo como error. Así el intervalo de sondeo y la latencia de Appium no se suman a la medición.
+ * Los resultados van a {@link LatenciaLogin}.
+ */
+public class ContinuarYMedirIngreso implements Interaction {
+
+  private static final long SONDEO_MS =
+          Long.parseLong(System.getProperty("login.latencia.sondeo.ms", "100"));
+  private static final long APARICION_CARGA_MS =
+          Long.parseLong(System.getProperty("login.latencia.aparicion.carga.ms", "1500"));
+  private static final long TIMEOUT_CARGA_MS = 30_000L;
+  private static final long TIMEOUT_HOME_MS =
+          Long.parseLong(System.getProperty("login.latencia.home.timeout.segundos", "30")) * 1000L;
+
+  // Home, o un diálogo que se interpone antes del home (biometría, sesión abierta, términos)
+  private static final By PANTALLA_SIGUIENTE = new MobileBy.ByAndroidUIAutomator("new UiSelector().textMatches("
+          + "\"(?s).*(Tus servicios favoritos|Tienes una sesión abierta|Te damos la bienvenida|En otro momento).*\")");
+
+  private final String metodo;
+
+  public ContinuarYMedirIngreso(String metodo) {
+    this.metodo = metodo;
+  }
+
+  public static ContinuarYMedirIngreso conMetodo(String metodo) {
+    return instrumented(ContinuarYMedirIngreso.class, metodo);
+  }
+
+  /**
+   * Instante estimado de un cambio de pantalla y su error, y la primera observación del estado nuevo,
+   * en nanosegundos.
+   */
+  private static class Cambio {
+    private final long instante;
+    private final long error;
+    private final long observacion;
+    private final Object observado;
+
+    private Cambio(long instante, long error, long observacion, Object observado) {
+      this.instante = instante;
+      this.error = error;
+      this.observacion = observacion;
+      this.observado = observado;
+    }
+  }
+
+  private interface Sonda {
+    /** Devuelve lo observado si la condición se cumple, o null. */
+    Object observar();
+  }
+
+  @Override
+  @Step("Continuar e ingresar midiendo la latencia del login (#metodo)")
+  public <T extends Actor> void performAs(T actor) {
+    AndroidDriver driver = AndroidObject.androidDriver(actor);
+    try {
+      // Misma pausa previa que ClickElementByText
+      Telemetria.pausa(1000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    WebElement continuar = driver.findElement(
+            new MobileBy.ByAndroidUIAutomator("new UiSelector().textMatches(\"(?i)^" + CONTINUAR + "$\")"));
+
+    driver.manage().timeouts().implicitlyWait(0, TimeUnit.SECONDS);
+    try {
+      long antesToque = System.nanoTime();
+      continuar.click();
+      long toque = (antesToque + System.nanoTime()) / 2;
+
+      // Fase 1: la carga puede tardar en aparecer; si no aparece, no hay fase de carga
+      Cambio aparicion = sondear(() -> LOADING_ESPERA_UN_MOMENTO.resolveAllFor(actor).isEmpty() ? null : Boolean.TRUE,
+              toque, APARICION_CARGA_MS);
+      Cambio finCarga = null;
+      if (aparicion != null) {
+        finCarga = sondear(() -> LOADING_ESPERA_UN_MOMENTO.resolveAllFor(actor).isEmpty() ? Boolean.TRUE : null,
+                aparicion.observacion, TIMEOUT_CARGA_MS);
+        if (finCarga == null) {
+          throw new RuntimeException("La pantalla de carga no desapareció en " + TIMEOUT_CARGA_MS / 1000 + " s");
+        }
+      }
+
+      // Fase 2: del fin de la carga (o del toque) a la primera pantalla posterior
+      long desde = finCarga == null ? toque : finCarga.instante;
+      long ultimaSinHome = finCarga == null ? toque : finCarga.observacion;
+      Cambio home = sondear(() -> {
+        if (!LBL_ENCABEZADO_USUARIO.resolveAllFor(actor).isEmpty()) {
+          return "home";
+        }
+        List<WebElement> siguiente = driver.findElements(PANTALLA_SIGUIENTE);
+        return siguiente.isEmpty() ? null : siguiente.get(0);
+      }, ultimaSinHome, TIMEOUT_HOME_MS);
+
+      String pantalla = "home";
+      if (home != null && home.observado instanceof WebElement) {
+        String texto = ((WebElement) home.observado).getText();
+        pantalla = texto.contains("Tus servicios favoritos") ? "home" : "diálogo '" + texto + "'";
+      }
+      LatenciaLogin.registrar(metodo,
+              finCarga == null ? Double.NaN : (finCarga.instante - toque) / 1e6,
+              finCarga == null ? 0 : finCarga.error / 1e6,
+              home == null ? Double.NaN : (home.instante - desde) / 1e6,
+              home == null ? 0 : home.error / 1e6,
+              pantalla);
+    } finally {
+      driver.manage().timeouts().implicitlyWait(MyDriver.esperaImplicitaMs(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Sondea hasta que la sonda observe algo o pase el tiempo máximo (devuelve null).
+   *
+   * @param desde instante de la última observación conocida del estado anterior
+   */
+  private static Cambio sondear(Sonda sonda, long desde, long timeoutMs) {
+    long anterior = desde;
+    while (true) {
+      long antes = System.nanoTime();
+      Object observado = sonda.observar();
+      long despues = System.nanoTime();
+      long observacion = (antes + despues) / 2;
+      if (observado != null) {
+        return new Cambio((anterior + observacion) / 2, (observacion - anterior) / 2, observacion, observado);
+      }
+      anterior = observacion;
+      if (despues - desde > timeoutMs * 1_000_000L) {
+        return null;
+      }
+      try {
+        Telemetria.pausa(SONDEO_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+    }
+  }
+}
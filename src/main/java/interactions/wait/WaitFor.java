@@ -6,6 +6,8 @@ import net.serenitybdd.core.time.InternalSystemClock;
 import net.serenitybdd.screenplay.Actor;
 import net.serenitybdd.screenplay.Interaction;
 import net.thucydides.core.annotations.Step;
+import utils.Telemetria;
+import utils.jfr.WaitEvent;
 
 public class WaitFor implements Interaction {
 
@@ -22,6 +24,20 @@ public class WaitFor implements Interaction {
   @Override
   @Step("{0}")
   public <T extends Actor> void performAs(T actor) {
-    new InternalSystemClock().pauseFor(var);
+    long inicio = Telemetria.inicio(Telemetria.Categoria.ESPERA);
+    WaitEvent evento = new WaitEvent();
+    evento.begin();
+    try {
+      new InternalSystemClock().pauseFor(var);
+    } finally {
+      Telemetria.fin(Telemetria.Categoria.ESPERA, inicio, "WaitFor " + var + " ms");
+      evento.end();
+      if (evento.shouldCommit()) {
+        evento.objetivo = "pausa";
+        evento.timeout = var;
+        evento.resultado = "PAUSA";
+        evento.commit();
+      }
+    }
   }
 }
\ No newline at end of file
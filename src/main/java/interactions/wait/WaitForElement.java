@@ -0,0 +1,73 @@
+package interactions.wait;
+
+import net.serenitybdd.core.pages.WebElementState;
+import net.serenitybdd.screenplay.Actor;
+import net.serenitybdd.screenplay.Interaction;
+import net.serenitybdd.screenplay.targets.Target;
+import net.serenitybdd.screenplay.waits.WaitUntil;
+import org.hamcrest.Matcher;
+import utils.Telemetria;
+import utils.jfr.WaitEvent;
+
+/**
+ * WaitUntil medido como espera en la telemetría. Se usa igual que WaitUntil:
+ * WaitForElement.the(TXT_USERNAME, isEnabled()).forNoMoreThan(10).seconds()
+ */
+public class WaitForElement implements Interaction {
+
+  private final Target elemento;
+  private final Matcher<WebElementState> estado;
+  private final long timeoutSegundos;
+
+  public WaitForElement(Target elemento, Matcher<WebElementState> estado, long timeoutSegundos) {
+    this.elemento = elemento;
+    this.estado = estado;
+    this.timeoutSegundos = timeoutSegundos;
+  }
+
+  /** Espera con el tiempo máximo por defecto de WaitUntil. */
+  public static WaitForElement the(Target elemento, Matcher<WebElementState> estado) {
+    return new WaitForElement(elemento, estado, 0L);
+  }
+
+  public Plazo forNoMoreThan(long cantidad) {
+    return new Plazo(cantidad);
+  }
+
+  public class Plazo {
+    private final long cantidad;
+
+    private Plazo(long cantidad) {
+      this.cantidad = cantidad;
+    }
+
+    public WaitForElement seconds() {
+      return new WaitForElement(elemento, estado, cantidad);
+    }
+  }
+
+  @Override
+  public <T extends Actor> void performAs(T actor) {
+    long inicio = Telemetria.inicio(Telemetria.Categoria.ESPERA);
+    WaitEvent evento = new WaitEvent();
+    evento.begin();
+    String resultado = "TIMEOUT";
+    try {
+      if (timeoutSegundos > 0) {
+        actor.attemptsTo(WaitUntil.the(elemento, estado).forNoMoreThan(timeoutSegundos).seconds());
+      } else {
+        actor.attemptsTo(WaitUntil.the(elemento, estado));
+      }
+      resultado = "ENCONTRADO";
+    } finally {
+      Telemetria.fin(Telemetria.Categoria.ESPERA, inicio, "WaitUntil " + elemento.getName());
+      evento.end();
+      if (evento.shouldCommit()) {
+        evento.objetivo = elemento.getName();
+        evento.timeout = timeoutSegundos * 1000L;
+        evento.resultado = resultado;
+        evento.commit();
+      }
+    }
+  }
+}
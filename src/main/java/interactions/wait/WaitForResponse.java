@@ -11,6 +11,8 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.Telemetria;
+import utils.jfr.WaitEvent;
 
 public class WaitForResponse implements Interaction {
 
@@ -27,6 +29,26 @@ public class WaitForResponse implements Interaction {
 
     @Override
     public <T extends Actor> void performAs(T actor) {
+        long inicioEspera = Telemetria.inicio(Telemetria.Categoria.ESPERA);
+        WaitEvent evento = new WaitEvent();
+        evento.begin();
+        String resultado = "TIMEOUT";
+        try {
+            esperar(actor);
+            resultado = "ENCONTRADO";
+        } finally {
+            Telemetria.fin(Telemetria.Categoria.ESPERA, inicioEspera, "WaitForResponse");
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.objetivo = String.join(" | ", expectedTexts);
+                evento.timeout = timeout * 1000L;
+                evento.resultado = resultado;
+                evento.commit();
+            }
+        }
+    }
+
+    private <T extends Actor> void esperar(T actor) {
         WebDriverWait wait = new WebDriverWait(
                 BrowseTheWeb.as(actor).getDriver(),
                 timeout // 👈 usamos el constructor antiguo compatible
@@ -0,0 +1,124 @@
+package listeners;
+
+import net.thucydides.core.model.DataTable;
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.steps.ExecutedStepDescription;
+import net.thucydides.core.steps.StepFailure;
+import net.thucydides.core.steps.StepListener;
+import utils.Telemetria;
+
+import java.util.Map;
+
+/**
+ * Listener de Serenity que mide cada paso (Cucumber, tareas e interacciones de Screenplay).
+ *
+ * Abre un marco en stepStarted y lo cierra al terminar el paso; {@link Telemetria} registra inicio y
+ * fin en nanosegundos y el desglose en esperas, comandos al driver y captura de evidencia.
+ * Se registra en serenity.listeners y se desactiva con telemetria.habilitada=false.
+ */
+public class TiemposStepListener implements StepListener {
+
+    @Override
+    public void testStarted(String description, String id) {
+        Telemetria.iniciarEscenario(description);
+    }
+
+    @Override
+    public void testStarted(String description) {
+        testStarted(description, "");
+    }
+
+    @Override
+    public void testFinished(TestOutcome result) {
+        Telemetria.finalizarEscenario();
+    }
+
+    @Override
+    public void testFailed(TestOutcome testOutcome, Throwable cause) {
+        Telemetria.finalizarEscenario();
+    }
+
+    @Override
+    public void stepStarted(ExecutedStepDescription description) {
+        Telemetria.iniciarPaso(description.getTitle());
+    }
+
+    @Override
+    public void skippedStepStarted(ExecutedStepDescription description) {
+        Telemetria.iniciarPaso(description.getTitle());
+    }
+
+    @Override
+    public void stepFinished() {
+        Telemetria.finalizarPaso("SUCCESS");
+    }
+
+    @Override
+    public void stepFailed(StepFailure failure) {
+        Telemetria.finalizarPaso("FAILURE");
+    }
+
+    @Override
+    public void stepIgnored() {
+        Telemetria.finalizarPaso("IGNORED");
+    }
+
+    @Override
+    public void stepPending() {
+        Telemetria.finalizarPaso("PENDING");
+    }
+
+    @Override
+    public void stepPending(String message) {
+        stepPending();
+    }
+
+    @Override
+    public void testSuiteStarted(Class<?> storyClass) {}
+
+    @Override
+    public void testSuiteStarted(Story story) {}
+
+    @Override
+    public void testSuiteFinished() {}
+
+    @Override
+    public void testRetried() {}
+
+    @Override
+    public void lastStepFailed(StepFailure stepFailure) {}
+
+    @Override
+    public void testIgnored() {}
+
+    @Override
+    public void testSkipped() {}
+
+    @Override
+    public void testPending() {}
+
+    @Override
+    public void testIsManual() {}
+
+    @Override
+    public void notifyScreenChange() {}
+
+    @Override
+    public void useExamplesFrom(DataTable table) {}
+
+    @Override
+    public void addNewExamplesFrom(DataTable table) {}
+
+    @Override
+    public void exampleStarted(Map<String, String> data) {}
+
+    @Override
+    public void exampleFinished() {}
+
+    @Override
+    public void assumptionViolated(String message) {}
+
+    @Override
+    public void testRunFinished() {}
+}
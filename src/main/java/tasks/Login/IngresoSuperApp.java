@@ -5,6 +5,7 @@ import interactions.Click.ClickTextoQueContengaX;
 import interactions.comunes.Atras;
 import interactions.validations.ValidarTextoQueContengaX;
 import interactions.validations.ValidateInformationText;
+import interactions.wait.ContinuarYMedirIngreso;
 import interactions.wait.WaitElement;
 import interactions.wait.WaitFor;
 import models.User;
@@ -15,7 +16,6 @@ import net.serenitybdd.screenplay.actions.Click;
 import net.serenitybdd.screenplay.actions.Enter;
 import net.serenitybdd.screenplay.questions.Presence;
 import net.serenitybdd.screenplay.targets.Target;
-import net.serenitybdd.screenplay.waits.WaitUntil;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import utils.AndroidObject;
@@ -26,7 +26,6 @@ import java.util.List;
 
 import static net.serenitybdd.screenplay.GivenWhenThen.seeThat;
 import static net.serenitybdd.screenplay.Tasks.instrumented;
-import static net.serenitybdd.screenplay.matchers.WebElementStateMatchers.isNotPresent;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static userinterfaces.LoginPage.*;
 import static utils.Constants.*;
@@ -35,6 +34,8 @@ public class IngresoSuperApp implements Task {
 
     private final User user = TestDataProvider.getRealUser();
     private static final String paso = "Login exitoso a la Super App";
+    // Usuario recordado: solo contraseña. Se mide aparte de CORREO y DOCUMENTO (ver utils.LatenciaLogin)
+    private static final String METODO_REINGRESO = "REINGRESO";
 
     @Override
     public <T extends Actor> void performAs(T actor) {
@@ -112,8 +113,7 @@ public class IngresoSuperApp implements Task {
                 Enter.theValue(user.getEmail()).into(TXT_USERNAME),
                 ClickElementByText.clickElementByText(CONTINUAR),
                 Enter.theValue(user.getPassword()).into(TXT_PASSWORD),
-                ClickElementByText.clickElementByText(CONTINUAR),
-                WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(30).seconds()
+                ContinuarYMedirIngreso.conMetodo("CORREO")
         );
         validarLogin(actor);
     }
@@ -123,8 +123,7 @@ public class IngresoSuperApp implements Task {
                 Enter.theValue(user.getCedula()).into(TXT_USERNAME),
                 ClickElementByText.clickElementByText(CONTINUAR),
                 Enter.theValue(user.getPassword()).into(TXT_PASSWORD),
-                ClickElementByText.clickElementByText(CONTINUAR),
-                WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(30).seconds()
+                ContinuarYMedirIngreso.conMetodo("DOCUMENTO")
         );
         validarLogin(actor);
     }
@@ -139,8 +138,7 @@ public class IngresoSuperApp implements Task {
         actor.attemptsTo(
                 ClickElementByText.clickElementByText(CONTINUAR),
                 Enter.theValue(user.getPassword()).into(TXT_PASSWORD),
-                ClickElementByText.clickElementByText(CONTINUAR),
-                WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(30).seconds()
+                ContinuarYMedirIngreso.conMetodo(METODO_REINGRESO)
         );
     }
 
@@ -151,8 +149,7 @@ public class IngresoSuperApp implements Task {
         actor.attemptsTo(
                 ClickElementByText.clickElementByText(CONTINUAR),
                 Enter.theValue(user.getPassword()).into(TXT_PASSWORD),
-                ClickElementByText.clickElementByText(CONTINUAR),
-                WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(30).seconds()
+                ContinuarYMedirIngreso.conMetodo(METODO_REINGRESO)
         );
     }
 
@@ -196,8 +193,7 @@ public class IngresoSuperApp implements Task {
         actor.attemptsTo(
                 ClickElementByText.clickElementByText(CONTINUAR),
                 Enter.theValue(user.getPassword()).into(TXT_PASSWORD),
-                ClickElementByText.clickElementByText(CONTINUAR),
-                WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(30).seconds()
+                ContinuarYMedirIngreso.conMetodo(isValidEmail(user.getEmail()) ? "CORREO" : "DOCUMENTO")
         );
     }
 
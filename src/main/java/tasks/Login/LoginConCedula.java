@@ -12,6 +12,7 @@ import interactions.comunes.Atras;
 import interactions.validations.ValidarTextoQueContengaX;
 import interactions.validations.ValidateInformationText;
 import interactions.wait.WaitFor;
+import interactions.wait.WaitForElement;
 import models.User;
 import net.serenitybdd.screenplay.Actor;
 import net.serenitybdd.screenplay.Performable;
@@ -20,7 +21,6 @@ import net.serenitybdd.screenplay.actions.Click;
 import net.serenitybdd.screenplay.actions.Enter;
 import net.serenitybdd.screenplay.questions.Presence;
 import net.serenitybdd.screenplay.targets.Target;
-import net.serenitybdd.screenplay.waits.WaitUntil;
 import utils.EvidenciaUtils;
 import utils.TestDataProvider;
 
@@ -78,7 +78,7 @@ public class LoginConCedula implements Task {
               ClickElementByText.clickElementByText(CONTINUAR),
               Enter.theValue(user.getPassword()).into(TXT_PASSWORD),
               ClickElementByText.clickElementByText(CONTINUAR),
-              WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(30).seconds());
+              WaitForElement.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(30).seconds());
     }
 
     aceptarPermisosIniciales(actor);
@@ -92,7 +92,7 @@ public class LoginConCedula implements Task {
             ClickElementByText.clickElementByText(CONTINUAR),
             Enter.theValue(user.getPassword()).into(TXT_PASSWORD),
             ClickElementByText.clickElementByText(CONTINUAR),
-            WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(30).seconds());
+            WaitForElement.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(30).seconds());
   }
 
   private <T extends Actor> void clickAceptarSesion(T actor) {
@@ -122,7 +122,7 @@ public class LoginConCedula implements Task {
             ClickElementByText.clickElementByText(CONTINUAR),
             Enter.theValue(user.getPassword()).into(TXT_PASSWORD),
             ClickElementByText.clickElementByText(CONTINUAR),
-            WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(30).seconds());
+            WaitForElement.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(30).seconds());
   }
 
   private <T extends Actor> void validarLogin(T actor) {
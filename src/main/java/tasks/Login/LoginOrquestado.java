@@ -4,16 +4,19 @@ import interactions.Click.ClickElementByText;
 import interactions.Click.ClickTextoQueContengaX;
 import interactions.validations.ValidarTexto;
 import interactions.validations.ValidateInformationText;
+import interactions.wait.ContinuarYMedirIngreso;
+import interactions.wait.WaitForElement;
 import interactions.wait.WaitForResponse;
 import models.User;
 import net.serenitybdd.screenplay.*;
 import net.serenitybdd.screenplay.actions.*;
 import net.serenitybdd.screenplay.questions.Presence;
-import net.serenitybdd.screenplay.waits.WaitUntil;
 import net.serenitybdd.screenplay.matchers.WebElementStateMatchers;
 
 import utils.EvidenciaUtils;
+import utils.ScenarioContext;
 import utils.TestDataProvider;
+import utils.metricas.Metricas;
 
 import static net.serenitybdd.screenplay.Tasks.instrumented;
 import static net.serenitybdd.screenplay.GivenWhenThen.seeThat;
@@ -39,6 +42,7 @@ public class LoginOrquestado implements Task {
 
     @Override
     public <T extends Actor> void performAs(T actor) {
+        ScenarioContext.actual().getDatos().put(Metricas.DATO_METODO_LOGIN, metodo.name());
 
         //  VALIDACIÓN DE PANTALLAS DE ENTRADA
         validarPantallasIniciales(actor);
@@ -116,7 +120,7 @@ public class LoginOrquestado implements Task {
 
         EvidenciaUtils.registrarCaptura("Pantalla: Login - Seleccionar 'Otros métodos de ingreso'");
         actor.attemptsTo(
-                WaitUntil.the(BTN_OTROS_METODOS_INGRESO, WebElementStateMatchers.isVisible()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(BTN_OTROS_METODOS_INGRESO, WebElementStateMatchers.isVisible()).forNoMoreThan(10).seconds(),
                 Click.on(BTN_OTROS_METODOS_INGRESO)
         );
 
@@ -127,7 +131,7 @@ public class LoginOrquestado implements Task {
 
         EvidenciaUtils.registrarCaptura("Pantalla: Ingresar CORREO");
         actor.attemptsTo(
-                WaitUntil.the(TXT_USERNAME, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(TXT_USERNAME, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
                 Click.on(TXT_USERNAME),
                 Enter.theValue(user.getEmail()).into(TXT_USERNAME)
         );
@@ -138,15 +142,14 @@ public class LoginOrquestado implements Task {
 
         EvidenciaUtils.registrarCaptura("Pantalla: Ingresar CONTRASEÑA");
         actor.attemptsTo(
-                WaitUntil.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
                 Enter.theValue(user.getPassword()).into(TXT_PASSWORD)
         );
         EvidenciaUtils.registrarCaptura("Contraseña digitada: ******** (oculta)");
 
         EvidenciaUtils.registrarCaptura("Acción: Continuar (contraseña)");
         actor.attemptsTo(
-                ClickElementByText.clickElementByText(CONTINUAR),
-                WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, WebElementStateMatchers.isNotPresent()).forNoMoreThan(30).seconds()
+                ContinuarYMedirIngreso.conMetodo(metodo.name())
         );
 
     }
@@ -159,7 +162,7 @@ public class LoginOrquestado implements Task {
 
         EvidenciaUtils.registrarCaptura("Pantalla: Ingresar DOCUMENTO");
         actor.attemptsTo(
-                WaitUntil.the(TXT_USERNAME, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(TXT_USERNAME, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
                 Click.on(TXT_USERNAME),
                 Enter.theValue(user.getCedula()).into(TXT_USERNAME)
         );
@@ -170,15 +173,14 @@ public class LoginOrquestado implements Task {
 
         EvidenciaUtils.registrarCaptura("Pantalla: Ingresar CONTRASEÑA");
         actor.attemptsTo(
-                WaitUntil.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
                 Enter.theValue(user.getPassword()).into(TXT_PASSWORD)
         );
         EvidenciaUtils.registrarCaptura("Contraseña digitada: ******** (oculta)");
 
         EvidenciaUtils.registrarCaptura("Acción: Continuar (contraseña)");
         actor.attemptsTo(
-                ClickElementByText.clickElementByText(CONTINUAR),
-                WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, WebElementStateMatchers.isNotPresent()).forNoMoreThan(30).seconds()
+                ContinuarYMedirIngreso.conMetodo(metodo.name())
         );
 
     }
@@ -192,7 +194,7 @@ public class LoginOrquestado implements Task {
         bypassWelcomeBackIfPresent(actor);
 
         actor.attemptsTo(
-                WaitUntil.the(BTN_OTROS_METODOS_INGRESO, WebElementStateMatchers.isVisible()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(BTN_OTROS_METODOS_INGRESO, WebElementStateMatchers.isVisible()).forNoMoreThan(10).seconds(),
                 Click.on(BTN_OTROS_METODOS_INGRESO)
         );
 
@@ -200,15 +202,14 @@ public class LoginOrquestado implements Task {
 
         actor.attemptsTo(
                 ClickElementByText.clickElementByText(PIN),
-                WaitUntil.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
                 Enter.theValue(user.getNumero()).into(TXT_NUMERO)
         );
 
         EvidenciaUtils.registrarCaptura("Pantalla: Ingresar PIN/NÚMERO");
 
         actor.attemptsTo(
-                ClickElementByText.clickElementByText(CONTINUAR),
-                WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, WebElementStateMatchers.isNotPresent()).forNoMoreThan(30).seconds()
+                ContinuarYMedirIngreso.conMetodo(metodo.name())
         );
 
     }
@@ -247,7 +248,7 @@ public class LoginOrquestado implements Task {
         actor.attemptsTo(
                 ClickElementByText.clickElementByText(SI_CERRAR),
                 WaitForResponse.withAnyText(INICIAR_SESION),
-                WaitUntil.the(LBL_INICIAR_SESION, WebElementStateMatchers.isVisible()).forNoMoreThan(20).seconds()
+                WaitForElement.the(LBL_INICIAR_SESION, WebElementStateMatchers.isVisible()).forNoMoreThan(20).seconds()
         );
 
         EvidenciaUtils.registrarCaptura("Sesión cerrada. Volvió a Home (¡Hola!/Iniciar sesión).");
@@ -334,7 +335,7 @@ public class LoginOrquestado implements Task {
         // 2) Si no hay link, intentar 'Continuar' SOLO si está habilitado
         if (!Presence.of(BTN_CONTINUAR_WELCOME).viewedBy(actor).resolveAll().isEmpty()) {
             // Espera breve a que se habilite; si no, no intentes el click
-            actor.attemptsTo(WaitUntil.the(BTN_CONTINUAR_WELCOME, WebElementStateMatchers.isVisible())
+            actor.attemptsTo(WaitForElement.the(BTN_CONTINUAR_WELCOME, WebElementStateMatchers.isVisible())
                     .forNoMoreThan(5).seconds());
             boolean enabled = false;
             try {
@@ -4,6 +4,8 @@ import interactions.Click.ClickElementByText;
 import interactions.Click.ClickTextoQueContengaX;
 import interactions.validations.ValidarTexto;
 import interactions.validations.ValidateInformationText;
+import interactions.wait.ContinuarYMedirIngreso;
+import interactions.wait.WaitForElement;
 import interactions.wait.WaitForResponse;
 import models.User;
 import net.serenitybdd.screenplay.Actor;
@@ -14,9 +16,10 @@ import net.serenitybdd.screenplay.actions.Enter;
 import net.serenitybdd.screenplay.actions.Scroll;
 import net.serenitybdd.screenplay.matchers.WebElementStateMatchers;
 import net.serenitybdd.screenplay.questions.Presence;
-import net.serenitybdd.screenplay.waits.WaitUntil;
 import utils.EvidenciaUtils;
+import utils.ScenarioContext;
 import utils.TestDataProvider;
+import utils.metricas.Metricas;
 
 import static net.serenitybdd.screenplay.GivenWhenThen.seeThat;
 import static net.serenitybdd.screenplay.Tasks.instrumented;
@@ -37,6 +40,7 @@ public class LoginSuperApp implements Task {
 
     @Override
     public <T extends Actor> void performAs(T actor) {
+        ScenarioContext.actual().getDatos().put(Metricas.DATO_METODO_LOGIN, metodo.name());
 
         if (!Presence.of(LBL_SESION_CERRADA_POR_SEGURIDAD).viewedBy(actor).resolveAll().isEmpty()) {
             actor.attemptsTo(
@@ -108,7 +112,7 @@ public class LoginSuperApp implements Task {
         actor.attemptsTo(
                 ClickElementByText.clickElementByText(SI_CERRAR),
                 WaitForResponse.withAnyText(INICIAR_SESION),
-                WaitUntil.the(LBL_INICIAR_SESION, WebElementStateMatchers.isVisible()).forNoMoreThan(20).seconds()
+                WaitForElement.the(LBL_INICIAR_SESION, WebElementStateMatchers.isVisible()).forNoMoreThan(20).seconds()
         );
 
     }
@@ -120,7 +124,7 @@ public class LoginSuperApp implements Task {
 
         EvidenciaUtils.registrarCaptura("Pantalla: Login - Seleccionar 'Otros métodos de ingreso'");
         actor.attemptsTo(
-                WaitUntil.the(BTN_OTROS_METODOS_INGRESO, WebElementStateMatchers.isVisible()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(BTN_OTROS_METODOS_INGRESO, WebElementStateMatchers.isVisible()).forNoMoreThan(10).seconds(),
                 Click.on(BTN_OTROS_METODOS_INGRESO)
         );
 
@@ -131,7 +135,7 @@ public class LoginSuperApp implements Task {
 
         EvidenciaUtils.registrarCaptura("Pantalla: Ingresar CORREO");
         actor.attemptsTo(
-                WaitUntil.the(TXT_USERNAME, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(TXT_USERNAME, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
                 Click.on(TXT_USERNAME),
                 Enter.theValue(user.getEmail()).into(TXT_USERNAME)
         );
@@ -142,15 +146,14 @@ public class LoginSuperApp implements Task {
 
         EvidenciaUtils.registrarCaptura("Pantalla: Ingresar CONTRASEÑA");
         actor.attemptsTo(
-                WaitUntil.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
                 Enter.theValue(user.getPassword()).into(TXT_PASSWORD)
         );
         EvidenciaUtils.registrarCaptura("Contraseña digitada: ******** (oculta)");
 
         EvidenciaUtils.registrarCaptura("Acción: Continuar (contraseña)");
         actor.attemptsTo(
-                ClickElementByText.clickElementByText(CONTINUAR),
-                WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, WebElementStateMatchers.isNotPresent()).forNoMoreThan(30).seconds()
+                ContinuarYMedirIngreso.conMetodo(metodo.name())
         );
 
     }
@@ -163,7 +166,7 @@ public class LoginSuperApp implements Task {
 
         EvidenciaUtils.registrarCaptura("Pantalla: Ingresar DOCUMENTO");
         actor.attemptsTo(
-                WaitUntil.the(TXT_USERNAME, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(TXT_USERNAME, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
                 Click.on(TXT_USERNAME),
                 Enter.theValue(user.getCedula()).into(TXT_USERNAME)
         );
@@ -174,15 +177,14 @@ public class LoginSuperApp implements Task {
 
         EvidenciaUtils.registrarCaptura("Pantalla: Ingresar CONTRASEÑA");
         actor.attemptsTo(
-                WaitUntil.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
                 Enter.theValue(user.getPassword()).into(TXT_PASSWORD)
         );
         EvidenciaUtils.registrarCaptura("Contraseña digitada: ******** (oculta)");
 
         EvidenciaUtils.registrarCaptura("Acción: Continuar (contraseña)");
         actor.attemptsTo(
-                ClickElementByText.clickElementByText(CONTINUAR),
-                WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, WebElementStateMatchers.isNotPresent()).forNoMoreThan(30).seconds()
+                ContinuarYMedirIngreso.conMetodo(metodo.name())
         );
 
     }
@@ -196,7 +198,7 @@ public class LoginSuperApp implements Task {
         bypassWelcomeBackIfPresent(actor);
 
         actor.attemptsTo(
-                WaitUntil.the(BTN_OTROS_METODOS_INGRESO, WebElementStateMatchers.isVisible()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(BTN_OTROS_METODOS_INGRESO, WebElementStateMatchers.isVisible()).forNoMoreThan(10).seconds(),
                 Click.on(BTN_OTROS_METODOS_INGRESO)
         );
 
@@ -204,15 +206,14 @@ public class LoginSuperApp implements Task {
 
         actor.attemptsTo(
                 ClickElementByText.clickElementByText(PIN),
-                WaitUntil.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
+                WaitForElement.the(TXT_PASSWORD, WebElementStateMatchers.isEnabled()).forNoMoreThan(10).seconds(),
                 Enter.theValue(user.getNumero()).into(TXT_NUMERO)
         );
 
         EvidenciaUtils.registrarCaptura("Pantalla: Ingresar PIN/NÚMERO");
 
         actor.attemptsTo(
-                ClickElementByText.clickElementByText(CONTINUAR),
-                WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, WebElementStateMatchers.isNotPresent()).forNoMoreThan(30).seconds()
+                ContinuarYMedirIngreso.conMetodo(metodo.name())
         );
 
     }
@@ -234,7 +235,7 @@ public class LoginSuperApp implements Task {
         // 2) Si no hay link, intentar 'Continuar' SOLO si está habilitado
         if (!Presence.of(BTN_CONTINUAR_WELCOME).viewedBy(actor).resolveAll().isEmpty()) {
             // Espera breve a que se habilite; si no, no intentes el click
-            actor.attemptsTo(WaitUntil.the(BTN_CONTINUAR_WELCOME, WebElementStateMatchers.isVisible())
+            actor.attemptsTo(WaitForElement.the(BTN_CONTINUAR_WELCOME, WebElementStateMatchers.isVisible())
                     .forNoMoreThan(5).seconds());
             boolean enabled = false;
             try {
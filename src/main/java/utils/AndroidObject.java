@@ -82,16 +82,23 @@ public class AndroidObject extends Excepciones {
 
 
     public static void swipeVertical(Actor actor, double inicioRatio, double finRatio, double duracionSegs) {
+        swipeVertical(actor, inicioRatio, finRatio, duracionSegs, "swipeVertical");
+    }
+
+    /**
+     * Swipe vertical medido por {@link MedicionJank} con el nombre del gesto que lo origina.
+     */
+    private static void swipeVertical(Actor actor, double inicioRatio, double finRatio, double duracionSegs, String gesto) {
         Dimension dimension = androidDriver(actor).manage().window().getSize();
         int ancho = dimension.width / 2; // El ancho siempre será el centro de la pantalla
         int inicioY = (int) (dimension.height * inicioRatio);
         int finY = (int) (dimension.height * finRatio);
-        new TouchAction<>(androidDriver(actor))
+        MedicionJank.medir(gesto, () -> new TouchAction<>(androidDriver(actor))
                 .press(PointOption.point(ancho, inicioY))
                 .waitAction(WaitOptions.waitOptions(Duration.ofSeconds((long) duracionSegs)))
                 .moveTo(PointOption.point(ancho, finY))
                 .release()
-                .perform();
+                .perform());
     }
 
     protected static boolean estaCercaDelCentro(AndroidDriver driver, WebElement elemento) {
@@ -160,8 +167,8 @@ public class AndroidObject extends Excepciones {
 
                 // 3️⃣ Scroll corto si no se encuentra aún
                 System.out.println("🔄 Scroll intento #" + intento);
-                swipeVertical(actor, 0.7, 0.5, 0.3);
-                Thread.sleep(700);
+                swipeVertical(actor, 0.7, 0.5, 0.3, "scrollCorto2");
+                Telemetria.pausa(700);
             }
 
             System.out.println("❌ Texto no encontrado tras " + intentosMaximos + " intentos: " + textoOpcional);
@@ -400,8 +407,8 @@ public class AndroidObject extends Excepciones {
 
                 // 3️⃣ Scroll horizontal corto si no se encuentra aún
                 System.out.println("🔄 Scroll horizontal intento #" + intento);
-                swipeHorizontal(actor, 0.7, 0.3, 0.4); // De derecha a izquierda
-                Thread.sleep(800); // Pausa ligeramente mayor para scroll horizontal
+                swipeHorizontal(actor, 0.7, 0.3, 0.4, "scrollHorizontalHastaTexto"); // De derecha a izquierda
+                Telemetria.pausa(800); // Pausa ligeramente mayor para scroll horizontal
             }
 
             System.out.println("❌ Texto no encontrado tras " + intentosMaximos + " intentos de scroll horizontal: " + textoOpcional);
@@ -421,17 +428,24 @@ public class AndroidObject extends Excepciones {
      * @param duracionSegs Duración del swipe en segundos
      */
     public static void swipeHorizontal(Actor actor, double inicioRatio, double finRatio, double duracionSegs) {
+        swipeHorizontal(actor, inicioRatio, finRatio, duracionSegs, "swipeHorizontal");
+    }
+
+    /**
+     * Swipe horizontal medido por {@link MedicionJank} con el nombre del gesto que lo origina.
+     */
+    private static void swipeHorizontal(Actor actor, double inicioRatio, double finRatio, double duracionSegs, String gesto) {
         Dimension dimension = androidDriver(actor).manage().window().getSize();
         int alto = dimension.height / 2; // La altura siempre será el centro de la pantalla
         int inicioX = (int) (dimension.width * inicioRatio);
         int finX = (int) (dimension.width * finRatio);
 
-        new TouchAction<>(androidDriver(actor))
+        MedicionJank.medir(gesto, () -> new TouchAction<>(androidDriver(actor))
                 .press(PointOption.point(inicioX, alto))
                 .waitAction(WaitOptions.waitOptions(Duration.ofSeconds((long) duracionSegs)))
                 .moveTo(PointOption.point(finX, alto))
                 .release()
-                .perform();
+                .perform());
     }
 
     /**
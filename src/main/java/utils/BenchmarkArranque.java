@@ -0,0 +1,465 @@
+package utils;
+
+import com.google.gson.GsonBuilder;
+import io.appium.java_client.android.AndroidDriver;
+import net.serenitybdd.screenplay.Actor;
+import net.serenitybdd.screenplay.abilities.BrowseTheWeb;
+import net.serenitybdd.screenplay.targets.Target;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import utils.metricas.RegistroMetricas;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static userinterfaces.LoginPage.LOADING_ESPERA_UN_MOMENTO;
+import static userinterfaces.LoginPage.LOADING_SPLASH;
+
+/**
+ * Benchmark de arranque de la app (SplashActivity) en frío y en caliente.
+ *
+ * Cada iteración lanza la actividad con `am start -W`: en frío tras `am force-stop` y en caliente tras
+ * enviar la app al fondo con HOME (el proceso sigue vivo). Se registran TotalTime y WaitTime que
+ * informa Android y, con una sesión de Appium sin autoLaunch y espera implícita 0, el tiempo hasta que
+ * desaparecen LOADING_SPLASH y LOADING_ESPERA_UN_MOMENTO de LoginPage, medidos desde el comando de
+ * lanzamiento con el mismo criterio de punto medio que interactions.wait.ContinuarYMedirIngreso. El
+ * sondeo de UiAutomator2 compite con el arranque, así que las pantallas se miden en un segundo
+ * lanzamiento de la iteración y TotalTime y WaitTime solo se toman del lanzamiento sin sondeo.
+ *
+ * Las estadísticas descartan atípicos por desviación absoluta de la mediana (|x - mediana| > k·1,4826·MAD)
+ * y se escriben en target/benchmark/arranque/&lt;ejecución&gt;/ (arranque.json y muestras.csv). La mediana
+ * de cada corrida se agrega a target/benchmark/arranque/historial.csv y se compara con la anterior para
+ * avisar de regresiones; con benchmark.arranque.fallar.regresion=true la tarea falla (main termina con 1).
+ *
+ * Uso: gradle benchmarkArranque -Piteraciones=15 -Pcalentamiento=2 -Pmodos=frio,caliente
+ */
+public class BenchmarkArranque {
+
+  private static final Logger LOGGER = Logger.getLogger(BenchmarkArranque.class.getName());
+
+  private static final String PAQUETE = "com.clarocolombia.miclaro";
+  private static final String ACTIVIDAD = PAQUETE + "/com.claro.superapp.SplashActivity";
+  private static final String DIRECTORIO = "target" + File.separator + "benchmark" + File.separator + "arranque";
+
+  private static final boolean PANTALLAS =
+          Boolean.parseBoolean(System.getProperty("benchmark.arranque.pantallas", "true"));
+  private static final long PAUSA_MS =
+          Long.parseLong(System.getProperty("benchmark.arranque.pausa.ms", "2000"));
+  private static final long SONDEO_MS =
+          Long.parseLong(System.getProperty("benchmark.arranque.sondeo.ms", "50"));
+  private static final double K_MAD =
+          Double.parseDouble(System.getProperty("benchmark.arranque.mad.k", "3.5"));
+  private static final double REGRESION_PORCENTAJE =
+          Double.parseDouble(System.getProperty("benchmark.arranque.regresion.porcentaje", "15"));
+  private static final boolean FALLAR_REGRESION =
+          Boolean.parseBoolean(System.getProperty("benchmark.arranque.fallar.regresion", "false"));
+  private static final long APARICION_MS = 3_000L;
+  private static final long TIMEOUT_PANTALLA_MS = 30_000L;
+
+  private static final String[] METRICAS = {"totalTime", "waitTime", "splash", "esperaUnMomento"};
+
+  /** Una iteración medida; NaN si el valor no se pudo obtener. */
+  private static class Muestra {
+    private String modo;
+    private int iteracion;
+    private String estado;
+    private double totalTime = Double.NaN;
+    private double waitTime = Double.NaN;
+    private double splash = Double.NaN;
+    private double esperaUnMomento = Double.NaN;
+
+    private double valor(String metrica) {
+      switch (metrica) {
+        case "totalTime":
+          return totalTime;
+        case "waitTime":
+          return waitTime;
+        case "splash":
+          return splash;
+        default:
+          return esperaUnMomento;
+      }
+    }
+  }
+
+  private BenchmarkArranque() {}
+
+  public static void main(String[] args) throws Exception {
+    if (ejecutar(args)) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Corre el benchmark; devuelve true si hubo una regresión y benchmark.arranque.fallar.regresion=true.
+   */
+  public static boolean ejecutar(String[] args) throws Exception {
+    int iteraciones = args.length > 0 && !args[0].isEmpty() ? Integer.parseInt(args[0]) : 10;
+    int calentamiento = args.length > 1 && !args[1].isEmpty() ? Integer.parseInt(args[1]) : 2;
+    List<String> modos = Arrays.asList((args.length > 2 && !args[2].isEmpty() ? args[2] : "frio,caliente").split(","));
+
+    List<PoolDispositivos.Dispositivo> configurados = PoolDispositivos.configurados();
+    PoolDispositivos.Dispositivo dispositivo = configurados.isEmpty() ? null : configurados.get(0);
+    String udid = dispositivo == null ? "" : dispositivo.getUdid();
+
+    AndroidDriver driver = PANTALLAS ? abrirSesion(dispositivo) : null;
+    Actor observador = driver == null ? null : Actor.named("benchmark").whoCan(BrowseTheWeb.with(driver));
+    List<Muestra> muestras = new ArrayList<>();
+    try {
+      for (String modo : modos) {
+        String nombre = modo.trim();
+        if (!"frio".equals(nombre) && !"caliente".equals(nombre)) {
+          throw new IllegalArgumentException("Modo de arranque desconocido: " + nombre + " (frio|caliente)");
+        }
+        System.out.println("🚀 Arranque " + nombre + ": " + calentamiento + " de calentamiento + " + iteraciones + " medidas");
+        if ("caliente".equals(nombre)) {
+          // El arranque en caliente necesita el proceso vivo
+          adb(udid, "am start -W -n " + ACTIVIDAD);
+        }
+        for (int i = -calentamiento; i < iteraciones; i++) {
+          Muestra muestra = lanzar(udid, null, nombre);
+          if (observador != null) {
+            Thread.sleep(PAUSA_MS);
+            Muestra pantallas = lanzar(udid, observador, nombre);
+            muestra.splash = pantallas.splash;
+            muestra.esperaUnMomento = pantallas.esperaUnMomento;
+          }
+          muestra.iteracion = i;
+          System.out.printf("   %s #%d [%s] TotalTime %s | WaitTime %s | splash %s | espera %s%s%n", nombre, i,
+                  muestra.estado, ms(muestra.totalTime), ms(muestra.waitTime), ms(muestra.splash),
+                  ms(muestra.esperaUnMomento), i < 0 ? " (calentamiento)" : "");
+          if (i >= 0) {
+            muestras.add(muestra);
+          }
+          Thread.sleep(PAUSA_MS);
+        }
+      }
+    } finally {
+      if (driver != null) {
+        driver.quit();
+      }
+    }
+
+    Map<String, Map<String, Map<String, Object>>> resumen = new LinkedHashMap<>();
+    for (String modo : modos) {
+      Map<String, Map<String, Object>> porMetrica = new LinkedHashMap<>();
+      for (String metrica : METRICAS) {
+        List<Double> valores = new ArrayList<>();
+        for (Muestra muestra : muestras) {
+          if (muestra.modo.equals(modo.trim()) && !Double.isNaN(muestra.valor(metrica))) {
+            valores.add(muestra.valor(metrica));
+          }
+        }
+        if (!valores.isEmpty()) {
+          porMetrica.put(metrica, estadisticas(valores));
+        }
+      }
+      resumen.put(modo.trim(), porMetrica);
+    }
+
+    String version = versionApp(udid);
+    imprimir(resumen, version);
+    Path directorio = Paths.get(DIRECTORIO, DirectoriosEvidencia.idEjecucion());
+    escribir(directorio, udid, version, iteraciones, calentamiento, muestras, resumen);
+    return compararConAnterior(version, resumen) && FALLAR_REGRESION;
+  }
+
+  private static AndroidDriver abrirSesion(PoolDispositivos.Dispositivo dispositivo) {
+    try {
+      DesiredCapabilities caps = new DesiredCapabilities();
+      caps.setCapability("automationName", "UiAutomator2");
+      caps.setCapability("platformName", "Android");
+      caps.setCapability("appPackage", PAQUETE);
+      caps.setCapability("appActivity", "com.claro.superapp.SplashActivity");
+      // Los lanzamientos los hace `am start -W`; la sesión solo observa la pantalla
+      caps.setCapability("autoLaunch", false);
+      caps.setCapability("noReset", true);
+      caps.setCapability("newCommandTimeout", 8000);
+      if (dispositivo != null) {
+        caps.setCapability("udid", dispositivo.getUdid());
+        caps.setCapability("systemPort", dispositivo.getPuertoSistema());
+      }
+      String hub = dispositivo == null ? System.getProperty("appium.hub", "http://127.0.0.1:4723/wd/hub")
+              : dispositivo.getUrlAppium();
+      AndroidDriver driver = new AndroidDriver(new URL(hub), caps);
+      driver.manage().timeouts().implicitlyWait(0, TimeUnit.SECONDS);
+      return driver;
+    } catch (Exception e) {
+      System.out.println("⚠️ Sin sesión de Appium (" + e.getMessage() + "): solo se miden TotalTime y WaitTime");
+      return null;
+    }
+  }
+
+  /**
+   * Prepara el modo y lanza la actividad; con observador, sondea las pantallas de carga en paralelo con
+   * `am start -W` (sus TotalTime y WaitTime quedan afectados por el sondeo y no se usan).
+   */
+  private static Muestra lanzar(String udid, Actor observador, String modo) throws Exception {
+    if ("frio".equals(modo)) {
+      adb(udid, "am force-stop " + PAQUETE);
+    } else {
+      adb(udid, "input keyevent KEYCODE_HOME");
+    }
+    Muestra muestra = new Muestra();
+    muestra.modo = modo;
+
+    long inicio = System.nanoTime();
+    Process am = new ProcessBuilder(comandoAdb(udid, "am start -W -n " + ACTIVIDAD)).redirectErrorStream(true).start();
+    if (observador != null) {
+      muestra.splash = desaparicion(observador, LOADING_SPLASH, inicio);
+      muestra.esperaUnMomento = desaparicion(observador, LOADING_ESPERA_UN_MOMENTO, inicio);
+    }
+    try (BufferedReader salida = new BufferedReader(new InputStreamReader(am.getInputStream(), StandardCharsets.UTF_8))) {
+      String linea;
+      while ((linea = salida.readLine()) != null) {
+        linea = linea.trim();
+        if (linea.startsWith("TotalTime:")) {
+          muestra.totalTime = Double.parseDouble(linea.substring("TotalTime:".length()).trim());
+        } else if (linea.startsWith("WaitTime:")) {
+          muestra.waitTime = Double.parseDouble(linea.substring("WaitTime:".length()).trim());
+        } else if (linea.startsWith("LaunchState:")) {
+          muestra.estado = linea.substring("LaunchState:".length()).trim();
+        } else if (linea.startsWith("Error")) {
+          LOGGER.warning("am start: " + linea);
+        }
+      }
+    }
+    am.waitFor(TIMEOUT_PANTALLA_MS, TimeUnit.MILLISECONDS);
+    if (muestra.estado == null) {
+      // Android 9 y anteriores no informan LaunchState
+      muestra.estado = modo.toUpperCase(Locale.ROOT);
+    }
+    return muestra;
+  }
+
+  /**
+   * Milisegundos desde el lanzamiento hasta que el elemento desaparece, o NaN si no llegó a aparecer
+   * (p. ej. el splash en caliente). Cada observación se fecha en el punto medio de su comando y la
+   * desaparición en el punto medio entre la última observación visible y la primera sin el elemento.
+   */
+  private static double desaparicion(Actor observador, Target elemento, long inicio) throws InterruptedException {
+    Callable<Boolean> visible = () -> !elemento.resolveAllFor(observador).isEmpty();
+    long aparicion = sondear(visible, true, inicio, APARICION_MS);
+    if (aparicion < 0) {
+      return Double.NaN;
+    }
+    long fin = sondear(visible, false, aparicion, TIMEOUT_PANTALLA_MS);
+    return fin < 0 ? Double.NaN : (fin - inicio) / 1e6;
+  }
+
+  /**
+   * Sondea hasta que la condición tome el valor esperado; devuelve el instante estimado del cambio o -1.
+   */
+  private static long sondear(Callable<Boolean> condicion, boolean esperado, long desde, long timeoutMs)
+          throws InterruptedException {
+    long anterior = desde;
+    while (true) {
+      long antes = System.nanoTime();
+      boolean valor;
+      try {
+        valor = condicion.call();
+      } catch (Exception e) {
+        valor = !esperado;
+      }
+      long despues = System.nanoTime();
+      long observacion = (antes + despues) / 2;
+      if (valor == esperado) {
+        return (anterior + observacion) / 2;
+      }
+      anterior = observacion;
+      if (despues - desde > timeoutMs * 1_000_000L) {
+        return -1L;
+      }
+      Thread.sleep(SONDEO_MS);
+    }
+  }
+
+  /**
+   * Estadísticas robustas: mediana y MAD sobre todas las muestras; media, p90, mínimo y máximo sin atípicos.
+   */
+  static Map<String, Object> estadisticas(List<Double> valores) {
+    double[] ordenados = valores.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+    double mediana = mediana(ordenados);
+    double[] desvios = Arrays.stream(ordenados).map(v -> Math.abs(v - mediana)).sorted().toArray();
+    double mad = mediana(desvios);
+    double limite = K_MAD * 1.4826 * mad;
+    double[] sinAtipicos = Arrays.stream(ordenados).filter(v -> mad == 0 || Math.abs(v - mediana) <= limite).toArray();
+
+    Map<String, Object> resultado = new LinkedHashMap<>();
+    resultado.put("n", ordenados.length);
+    resultado.put("atipicos", ordenados.length - sinAtipicos.length);
+    resultado.put("mediana", redondear(mediana));
+    resultado.put("mad", redondear(mad));
+    resultado.put("media", redondear(Arrays.stream(sinAtipicos).average().orElse(Double.NaN)));
+    resultado.put("p90", redondear(RegistroMetricas.percentil(sinAtipicos, 0.9)));
+    resultado.put("min", redondear(sinAtipicos[0]));
+    resultado.put("max", redondear(sinAtipicos[sinAtipicos.length - 1]));
+    return resultado;
+  }
+
+  private static double mediana(double[] ordenados) {
+    int medio = ordenados.length / 2;
+    return ordenados.length % 2 == 1 ? ordenados[medio] : (ordenados[medio - 1] + ordenados[medio]) / 2;
+  }
+
+  private static void imprimir(Map<String, Map<String, Map<String, Object>>> resumen, String version) {
+    System.out.println("══════════════════════════════════════════════════════");
+    System.out.println("📊 Arranque de " + ACTIVIDAD + " (versión " + version + ", ms, sin atípicos)");
+    System.out.printf("   %-9s %-16s %5s %5s %9s %8s %9s %9s %9s%n",
+            "modo", "métrica", "n", "atíp.", "mediana", "MAD", "media", "p90", "máx");
+    for (Map.Entry<String, Map<String, Map<String, Object>>> modo : resumen.entrySet()) {
+      for (Map.Entry<String, Map<String, Object>> metrica : modo.getValue().entrySet()) {
+        Map<String, Object> e = metrica.getValue();
+        System.out.printf("   %-9s %-16s %5d %5d %9.1f %8.1f %9.1f %9.1f %9.1f%n", modo.getKey(), metrica.getKey(),
+                e.get("n"), e.get("atipicos"), e.get("mediana"), e.get("mad"), e.get("media"), e.get("p90"), e.get("max"));
+      }
+    }
+    System.out.println("══════════════════════════════════════════════════════");
+  }
+
+  private static void escribir(Path directorio, String udid, String version, int iteraciones, int calentamiento,
+                               List<Muestra> muestras, Map<String, Map<String, Map<String, Object>>> resumen)
+          throws IOException {
+    Files.createDirectories(directorio);
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("ejecucion", DirectoriosEvidencia.idEjecucion());
+    json.put("fecha", LocalDateTime.now().toString());
+    json.put("actividad", ACTIVIDAD);
+    json.put("dispositivo", udid.isEmpty() ? "local" : udid);
+    json.put("versionApp", version);
+    json.put("iteraciones", iteraciones);
+    json.put("calentamiento", calentamiento);
+    json.put("kMad", K_MAD);
+    json.put("resumen", resumen);
+    json.put("muestras", muestras);
+    Path archivoJson = directorio.resolve("arranque.json");
+    Files.write(archivoJson, new GsonBuilder().setPrettyPrinting().serializeSpecialFloatingPointValues().create()
+            .toJson(json).getBytes(StandardCharsets.UTF_8));
+
+    StringBuilder csv = new StringBuilder("modo,iteracion,estado,total_time_ms,wait_time_ms,splash_ms,espera_un_momento_ms\n");
+    for (Muestra muestra : muestras) {
+      csv.append(muestra.modo).append(',').append(muestra.iteracion).append(',').append(muestra.estado).append(',')
+              .append(celda(muestra.totalTime)).append(',').append(celda(muestra.waitTime)).append(',')
+              .append(celda(muestra.splash)).append(',').append(celda(muestra.esperaUnMomento)).append('\n');
+    }
+    Files.write(directorio.resolve("muestras.csv"), csv.toString().getBytes(StandardCharsets.UTF_8));
+    System.out.println("📁 Resultados del arranque en: " + directorio.toAbsolutePath());
+  }
+
+  /**
+   * Agrega las medianas de esta corrida a historial.csv y avisa si alguna empeoró más de
+   * benchmark.arranque.regresion.porcentaje respecto de la corrida anterior. Devuelve true si hubo regresión.
+   */
+  private static boolean compararConAnterior(String version, Map<String, Map<String, Map<String, Object>>> resumen)
+          throws IOException {
+    Path historial = Paths.get(DIRECTORIO, "historial.csv");
+    Map<String, Double> anteriores = new LinkedHashMap<>();
+    if (Files.exists(historial)) {
+      for (String linea : Files.readAllLines(historial, StandardCharsets.UTF_8)) {
+        String[] celdas = linea.split(",");
+        if (celdas.length >= 6 && !"ejecucion".equals(celdas[0])) {
+          // La última fila de cada modo y métrica es la de la corrida anterior
+          anteriores.put(celdas[2] + "/" + celdas[3], Double.parseDouble(celdas[5]));
+        }
+      }
+    }
+
+    boolean regresion = false;
+    StringBuilder filas = new StringBuilder(Files.exists(historial) ? "" : "ejecucion,version,modo,metrica,n,mediana,mad\n");
+    for (Map.Entry<String, Map<String, Map<String, Object>>> modo : resumen.entrySet()) {
+      for (Map.Entry<String, Map<String, Object>> metrica : modo.getValue().entrySet()) {
+        Map<String, Object> e = metrica.getValue();
+        double mediana = (Double) e.get("mediana");
+        filas.append(String.join(",", DirectoriosEvidencia.idEjecucion(), version.replace(',', ' '), modo.getKey(),
+                metrica.getKey(), String.valueOf(e.get("n")), celda(mediana), celda((Double) e.get("mad")))).append('\n');
+        Double anterior = anteriores.get(modo.getKey() + "/" + metrica.getKey());
+        if (anterior != null && anterior > 0 && mediana > anterior * (1 + REGRESION_PORCENTAJE / 100.0)) {
+          regresion = true;
+          System.out.printf("🐢 Regresión de arranque %s/%s: mediana %.1f ms vs %.1f ms en la corrida anterior (+%.0f%%)%n",
+                  modo.getKey(), metrica.getKey(), mediana, anterior, (mediana / anterior - 1) * 100);
+        }
+      }
+    }
+    Files.createDirectories(historial.getParent());
+    Files.write(historial, filas.toString().getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    if (!regresion && !anteriores.isEmpty()) {
+      System.out.println("✅ Sin regresiones de arranque respecto de la corrida anterior");
+    }
+    return regresion;
+  }
+
+  private static String versionApp(String udid) {
+    String configurada = System.getProperty("app.version", "");
+    if (!configurada.isEmpty()) {
+      return configurada;
+    }
+    for (String linea : adb(udid, "dumpsys package " + PAQUETE + " | grep versionName")) {
+      if (linea.contains("versionName=")) {
+        return linea.substring(linea.indexOf("versionName=") + "versionName=".length()).trim();
+      }
+    }
+    return "desconocida";
+  }
+
+  private static List<String> comandoAdb(String udid, String comandoShell) {
+    List<String> comando = new ArrayList<>();
+    comando.add("adb");
+    if (!udid.isEmpty()) {
+      comando.add("-s");
+      comando.add(udid);
+    }
+    comando.add("shell");
+    comando.add(comandoShell);
+    return comando;
+  }
+
+  private static List<String> adb(String udid, String comandoShell) {
+    List<String> lineas = new ArrayList<>();
+    try {
+      Process proceso = new ProcessBuilder(comandoAdb(udid, comandoShell)).redirectErrorStream(true).start();
+      try (BufferedReader salida = new BufferedReader(
+              new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8))) {
+        String linea;
+        while ((linea = salida.readLine()) != null) {
+          lineas.add(linea);
+        }
+      }
+      proceso.waitFor(TIMEOUT_PANTALLA_MS, TimeUnit.MILLISECONDS);
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo ejecutar adb shell " + comandoShell + ": " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return lineas;
+  }
+
+  private static String ms(double valor) {
+    return Double.isNaN(valor) ? "-" : String.format(Locale.ROOT, "%.0f ms", valor);
+  }
+
+  private static String celda(double valor) {
+    return Double.isNaN(valor) ? "" : String.format(Locale.ROOT, "%.1f", valor);
+  }
+
+  private static double redondear(double valor) {
+    return Math.round(valor * 10.0) / 10.0;
+  }
+}
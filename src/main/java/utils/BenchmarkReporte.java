@@ -0,0 +1,179 @@
+package utils;
+
+import org.apache.poi.util.Units;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark del tiempo de generación por reporte Word.
+ *
+ * Compara el flujo anterior completo ({@link #flujoAnterior}: copiar la plantilla a InformeFinal.docx,
+ * parsearla desde disco, reemplazar cada marcador recorriendo el documento e incrustar los PNG tal
+ * cual) con el actual ({@link PlantillaCache} + {@link WordAppium#completarReporte}). Usa capturas
+ * sintéticas del tamaño de un dispositivo; ambos escriben el documento en memoria.
+ *
+ * Uso: gradle benchmarkReporte -Piteraciones=30 -Ppasos=12
+ */
+public class BenchmarkReporte {
+
+  private static final int CALENTAMIENTO = 3;
+
+  public static void main(String[] args) throws Exception {
+    int iteraciones = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+    int pasos = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+
+    Path tmp = Files.createTempDirectory("benchmark_reporte");
+    InstantaneaEscenario escenario = prepararEscenario(tmp, pasos);
+
+    try {
+      long[] anterior = medir(iteraciones, escenario, false, tmp);
+      long[] actual = medir(iteraciones, escenario, true, tmp);
+
+      System.out.println("══════════════════════════════════════════════════════");
+      System.out.println("📊 Generación de reporte Word (" + iteraciones + " iteraciones, " + pasos + " pasos)");
+      imprimir("Flujo anterior", anterior);
+      imprimir("Flujo actual  ", actual);
+      System.out.printf("   Mejora (mediana): %.2fx%n", (double) mediana(anterior) / Math.max(1, mediana(actual)));
+      System.out.println("══════════════════════════════════════════════════════");
+    } finally {
+      escenario.eliminarCapturas();
+    }
+  }
+
+  private static InstantaneaEscenario prepararEscenario(Path tmp, int pasos) throws Exception {
+    List<String> nombres = new ArrayList<>();
+    Map<Integer, File> capturas = new HashMap<>();
+    for (int i = 0; i < pasos; i++) {
+      BufferedImage imagen = new BufferedImage(1080, 2400, BufferedImage.TYPE_INT_RGB);
+      Graphics2D g2d = imagen.createGraphics();
+      g2d.setPaint(new GradientPaint(0, 0, new Color(200, 30 * (i % 8), 40), 1080, 2400, Color.WHITE));
+      g2d.fillRect(0, 0, 1080, 2400);
+      g2d.dispose();
+      ByteArrayOutputStream png = new ByteArrayOutputStream();
+      ImageIO.write(imagen, "png", png);
+      Path archivo = tmp.resolve("captura_" + i + ".png");
+      Files.write(archivo, png.toByteArray());
+      String paso = (i + 1) + ". Paso sintético " + (i + 1);
+      nombres.add(paso);
+      capturas.put(i + 1, archivo.toFile());
+    }
+    return new InstantaneaEscenario("Benchmark", nombres, "3000000000", "0 min 0 seg", 0L,
+            null, "PASSED", capturas, tmp.toFile());
+  }
+
+  private static long[] medir(int iteraciones, InstantaneaEscenario escenario, boolean flujoActual, Path tmp) throws Exception {
+    long[] tiempos = new long[iteraciones];
+    for (int i = -CALENTAMIENTO; i < iteraciones; i++) {
+      long inicio = System.nanoTime();
+      if (flujoActual) {
+        try (XWPFDocument doc = PlantillaCache.nuevoDocumento(); ByteArrayOutputStream salida = new ByteArrayOutputStream()) {
+          WordAppium.completarReporte(doc, escenario);
+          doc.write(salida);
+        }
+      } else {
+        flujoAnterior(escenario, tmp);
+      }
+      if (i >= 0) {
+        tiempos[i] = System.nanoTime() - inicio;
+      }
+    }
+    return tiempos;
+  }
+
+  /**
+   * Generación de reporte tal como era antes de PlantillaCache y SustitucionPlantilla.
+   */
+  private static void flujoAnterior(InstantaneaEscenario escenario, Path tmp) throws Exception {
+    // Copia por escenario (inicializarPlantillaReporte) + parseo desde disco
+    Files.copy(Paths.get(PlantillaCache.TEMPLATE_PATH), tmp.resolve("InformeFinal.docx"),
+            StandardCopyOption.REPLACE_EXISTING);
+    try (FileInputStream fis = new FileInputStream(PlantillaCache.TEMPLATE_PATH);
+         XWPFDocument doc = new XWPFDocument(fis);
+         ByteArrayOutputStream salida = new ByteArrayOutputStream()) {
+      reemplazarTexto(doc, "{{ESCENARIO}}", escenario.getNombreEscenario());
+      reemplazarTexto(doc, "{{FECHA}}", WordAppium.FORMATTER.format(LocalDateTime.now()));
+      reemplazarTexto(doc, "{{LINEA}}", escenario.getLinea());
+      reemplazarTexto(doc, "{{DURACION}}", escenario.getDuracionFormato());
+      int indice = 0;
+      for (String paso : escenario.getPasos()) {
+        indice++;
+        XWPFRun run = doc.createParagraph().createRun();
+        run.setText(paso);
+        run.setFontSize(12);
+        doc.createParagraph().createRun().setText("");
+        File imagen = escenario.capturaDe(indice);
+        if (imagen != null) {
+          try (FileInputStream is = new FileInputStream(imagen)) {
+            doc.createParagraph().createRun().addPicture(is, Document.PICTURE_TYPE_PNG, imagen.getName(),
+                    Units.toEMU(150), Units.toEMU(270));
+          }
+        }
+      }
+      doc.write(salida);
+    }
+  }
+
+  // Un recorrido completo del documento por marcador, run por run
+  private static void reemplazarTexto(XWPFDocument doc, String marcador, String valor) {
+    for (XWPFParagraph p : doc.getParagraphs()) {
+      reemplazarEnRuns(p, marcador, valor);
+    }
+    for (XWPFTable t : doc.getTables()) {
+      for (XWPFTableRow row : t.getRows()) {
+        for (XWPFTableCell cell : row.getTableCells()) {
+          for (XWPFParagraph p : cell.getParagraphs()) {
+            reemplazarEnRuns(p, marcador, valor);
+          }
+        }
+      }
+    }
+  }
+
+  private static void reemplazarEnRuns(XWPFParagraph p, String marcador, String valor) {
+    for (XWPFRun r : p.getRuns()) {
+      String text = r.getText(0);
+      if (text != null && text.contains(marcador)) {
+        r.setText(text.replace(marcador, valor), 0);
+      }
+    }
+  }
+
+  private static void imprimir(String etiqueta, long[] tiempos) {
+    long[] orden = tiempos.clone();
+    Arrays.sort(orden);
+    double promedio = Arrays.stream(orden).average().orElse(0) / 1_000_000.0;
+    System.out.printf("   %s → promedio %.1f ms | mediana %.1f ms | mín %.1f ms | máx %.1f ms%n",
+            etiqueta, promedio, mediana(orden) / 1_000_000.0,
+            orden[0] / 1_000_000.0, orden[orden.length - 1] / 1_000_000.0);
+  }
+
+  private static long mediana(long[] tiempos) {
+    long[] orden = tiempos.clone();
+    Arrays.sort(orden);
+    return orden[orden.length / 2];
+  }
+}
@@ -0,0 +1,186 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Buffer circular en memoria con los últimos fotogramas del escenario.
+ *
+ * Un hilo en segundo plano toma capturas (PNG sin decodificar) cada evidencia.buffer.intervalo.ms
+ * y las guarda en memoria. El buffer se acota por número de fotogramas, antigüedad y bytes; solo se
+ * escribe a disco si el escenario falla o tiene el tag @evidencia, en
+ * reportes/buffer/&lt;ejecución&gt;/&lt;fork&gt;/&lt;escenario&gt;/ ({@link DirectoriosEvidencia#bajo}). Cada escenario
+ * tiene su propia sesión de buffer en su {@link ScenarioContext}.
+ *
+ * Los fotogramas se toman con screencap -p por adb exec-out ({@link CanalAdb#ejecutarBinario}) en el
+ * dispositivo del escenario, no con el driver: la sesión de Appium no es segura entre hilos y el buffer
+ * no compite con los comandos del escenario. Cada fotograma lanza un proceso adb y cuesta CPU en el
+ * dispositivo, por eso está desactivado por defecto. Con evidencia.modo=VIDEO no se inicia: la
+ * grabación de {@link GrabacionPantalla} ya cubre el escenario y se conserva si falla.
+ */
+public class BufferCapturas {
+
+  private static final Logger LOGGER = Logger.getLogger(BufferCapturas.class.getName());
+
+  private static final String BUFFER_DIR =
+          System.getProperty("user.dir") + File.separator + "reportes" + File.separator + "buffer";
+  private static final long TIMEOUT_CAPTURA_MS = 10_000L;
+  public static final String TAG_EVIDENCIA = "@evidencia";
+
+  private static final boolean HABILITADO =
+          Boolean.parseBoolean(System.getProperty("evidencia.buffer.habilitado", "false"));
+  private static final long INTERVALO_MS =
+          Long.parseLong(System.getProperty("evidencia.buffer.intervalo.ms", "1000"));
+  private static final int MAX_FOTOGRAMAS =
+          Integer.parseInt(System.getProperty("evidencia.buffer.max.fotogramas", "30"));
+  private static final long MAX_SEGUNDOS =
+          Long.parseLong(System.getProperty("evidencia.buffer.max.segundos", "0"));
+  private static final long MAX_BYTES =
+          Long.parseLong(System.getProperty("evidencia.buffer.max.bytes", String.valueOf(32L * 1024 * 1024)));
+
+  /**
+   * Buffer y hilo de captura de un escenario.
+   */
+  static class Sesion {
+    private final Deque<Fotograma> fotogramas = new ArrayDeque<>();
+    private long bytesActuales = 0L;
+    private long bytesPico = 0L;
+    private int descartados = 0;
+    private final ScheduledExecutorService hilo;
+
+    private Sesion(ScheduledExecutorService hilo) {
+      this.hilo = hilo;
+    }
+  }
+
+  private static class Fotograma {
+    private final byte[] png;
+    private final long instanteMs;
+    private final String paso;
+
+    private Fotograma(byte[] png, long instanteMs, String paso) {
+      this.png = png;
+      this.instanteMs = instanteMs;
+      this.paso = paso;
+    }
+  }
+
+  public static boolean habilitado() {
+    return HABILITADO;
+  }
+
+  /**
+   * Inicia la captura en segundo plano. Se llama desde el hilo del escenario para tomar su dispositivo.
+   */
+  public static void iniciar() {
+    ScenarioContext contexto = ScenarioContext.actual();
+    if (!HABILITADO || GrabacionPantalla.modoVideoActivo() || contexto.buffer != null) {
+      return;
+    }
+    CanalAdb canal = CanalAdb.actual();
+    Sesion sesion = new Sesion(Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "buffer-capturas");
+      t.setDaemon(true);
+      return t;
+    }));
+    contexto.buffer = sesion;
+    sesion.hilo.scheduleWithFixedDelay(() -> capturar(sesion, canal, contexto),
+            INTERVALO_MS, INTERVALO_MS, TimeUnit.MILLISECONDS);
+  }
+
+  private static void capturar(Sesion sesion, CanalAdb canal, ScenarioContext contexto) {
+    try {
+      byte[] png = canal.ejecutarBinario("screencap -p", TIMEOUT_CAPTURA_MS);
+      if (png.length == 0) {
+        return;
+      }
+      agregar(sesion, new Fotograma(png, System.currentTimeMillis(), contexto.getUltimoPaso()));
+    } catch (Exception e) {
+      LOGGER.fine("Captura de buffer omitida: " + e.getMessage());
+    }
+  }
+
+  private static void agregar(Sesion sesion, Fotograma fotograma) {
+    synchronized (sesion) {
+      Deque<Fotograma> fotogramas = sesion.fotogramas;
+      fotogramas.addLast(fotograma);
+      sesion.bytesActuales += fotograma.png.length;
+      sesion.bytesPico = Math.max(sesion.bytesPico, sesion.bytesActuales);
+
+      // Política de retención: últimos N fotogramas, últimos T segundos y presupuesto de bytes
+      long limiteAntiguedad = MAX_SEGUNDOS > 0 ? fotograma.instanteMs - MAX_SEGUNDOS * 1000 : Long.MIN_VALUE;
+      while (fotogramas.size() > 1
+              && (fotogramas.size() > MAX_FOTOGRAMAS
+              || sesion.bytesActuales > MAX_BYTES
+              || fotogramas.peekFirst().instanteMs < limiteAntiguedad)) {
+        sesion.bytesActuales -= fotogramas.removeFirst().png.length;
+        sesion.descartados++;
+      }
+    }
+  }
+
+  /**
+   * Detiene la captura y, si se solicita, escribe los fotogramas retenidos en reportes/buffer.
+   * Se llama desde el hilo del escenario, antes de que su directorio de evidencia se libere.
+   */
+  public static void detener(String nombreEscenario, boolean persistir) {
+    ScenarioContext contexto = ScenarioContext.actual();
+    Sesion sesion = contexto.buffer;
+    contexto.buffer = null;
+    if (sesion == null) {
+      return;
+    }
+    sesion.hilo.shutdownNow();
+    try {
+      sesion.hilo.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    List<Fotograma> copia;
+    synchronized (sesion) {
+      LOGGER.info(String.format("Buffer de capturas de %s: %d fotogramas, %d KB retenidos, pico %d KB de %d KB, %d descartados",
+              nombreEscenario, sesion.fotogramas.size(), sesion.bytesActuales / 1024, sesion.bytesPico / 1024, MAX_BYTES / 1024,
+              sesion.descartados));
+      copia = new ArrayList<>(sesion.fotogramas);
+      sesion.fotogramas.clear();
+    }
+
+    if (persistir && !copia.isEmpty()) {
+      persistir(copia);
+    }
+  }
+
+  private static void persistir(List<Fotograma> copia) {
+    DateTimeFormatter hora = DateTimeFormatter.ofPattern("HHmmss_SSS");
+    try {
+      Path carpeta = DirectoriosEvidencia.bajo(Paths.get(BUFFER_DIR));
+      int i = 1;
+      for (Fotograma f : copia) {
+        String instante = hora.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(f.instanteMs), ZoneId.systemDefault()));
+        String paso = f.paso == null ? "" : "_" + f.paso.toLowerCase().replaceAll("[^a-z0-9]", "_");
+        String nombre = String.format("%03d_%s%s.png", i++, instante, paso);
+        Files.write(carpeta.resolve(nombre.length() > 120 ? nombre.substring(0, 116) + ".png" : nombre), f.png);
+      }
+      LOGGER.info("Buffer de capturas persistido en: " + carpeta);
+    } catch (IOException e) {
+      LOGGER.log(Level.SEVERE, "Error al persistir el buffer de capturas", e);
+    }
+  }
+}
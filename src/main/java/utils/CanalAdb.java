@@ -0,0 +1,239 @@
+package utils;
+
+import org.openqa.selenium.Capabilities;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Canal persistente `adb shell` por dispositivo.
+ *
+ * Lanzar un proceso adb por comando cuesta decenas de milisegundos y carga al host; los muestreos
+ * periódicos (recursos, fotogramas, red) escriben en un único shell abierto y leen hasta una marca de
+ * fin. Los comandos de un mismo dispositivo se serializan. Si un comando excede su tiempo o el shell
+ * muere, el canal se descarta y el siguiente comando abre uno nuevo. Se cierran al terminar la suite.
+ *
+ * La salida binaria (p. ej. screencap -p) no cabe en un shell de líneas: {@link #ejecutarBinario} usa un
+ * proceso adb exec-out aparte.
+ */
+public class CanalAdb {
+
+  private static final Logger LOGGER = Logger.getLogger(CanalAdb.class.getName());
+
+  private static final Map<String, CanalAdb> CANALES = new ConcurrentHashMap<>();
+  private static final String MARCA_FIN = "__fin_comando_";
+  private static final ScheduledExecutorService VIGILANTE = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "canal-adb-vigilante");
+    t.setDaemon(true);
+    return t;
+  });
+
+  private final String udid;
+  private boolean dispositivoUnicoVerificado = false;
+  private Process proceso;
+  private BufferedWriter entrada;
+  private BlockingQueue<String> lineas;
+  private long secuencia = 0L;
+
+  private CanalAdb(String udid) {
+    this.udid = udid;
+  }
+
+  /**
+   * Canal del dispositivo ("" para el único dispositivo conectado: si hay varios, sus comandos fallan
+   * con un mensaje claro en lugar de ejecutarse sobre cualquiera).
+   */
+  public static CanalAdb de(String udid) {
+    FinSuite.registrar("canal-adb", CanalAdb::cerrarTodos);
+    return CANALES.computeIfAbsent(udid == null ? "" : udid, CanalAdb::new);
+  }
+
+  /**
+   * Canal del dispositivo asignado al hilo actual ({@link #udidActual}).
+   */
+  public static CanalAdb actual() {
+    return de(udidActual());
+  }
+
+  /**
+   * udid del dispositivo del hilo actual: el de {@link PoolDispositivos} o, sin pool, el que reporta la
+   * sesión de Appium del escenario (deviceUDID o udid). "" si no se conoce.
+   */
+  public static String udidActual() {
+    PoolDispositivos.Dispositivo dispositivo = PoolDispositivos.actual();
+    if (dispositivo != null) {
+      return dispositivo.getUdid();
+    }
+    try {
+      if (ScenarioContext.actual().getDriver() == null) {
+        return "";
+      }
+      Capabilities capacidades = ScenarioContext.actual().getDriver().getCapabilities();
+      Object udid = capacidades.getCapability("deviceUDID");
+      if (udid == null) {
+        udid = capacidades.getCapability("udid");
+      }
+      return udid == null ? "" : udid.toString();
+    } catch (RuntimeException e) {
+      LOGGER.fine("No se pudo leer el udid de la sesión de Appium: " + e.getMessage());
+      return "";
+    }
+  }
+
+  /**
+   * Ejecuta un comando en el shell del dispositivo y devuelve su salida (stdout y stderr).
+   */
+  public synchronized List<String> ejecutar(String comando, long timeoutMs) throws IOException {
+    if (proceso == null || !proceso.isAlive()) {
+      abrir();
+    }
+    String marca = MARCA_FIN + (++secuencia) + "__";
+    entrada.write("{ " + comando + "; } 2>&1; echo " + marca);
+    entrada.newLine();
+    entrada.flush();
+
+    List<String> salida = new ArrayList<>();
+    long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    try {
+      while (true) {
+        String linea = lineas.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+        if (linea == null) {
+          cerrar();
+          throw new IOException("adb shell sin respuesta en " + timeoutMs + " ms: " + comando);
+        }
+        if (linea.equals(marca)) {
+          return salida;
+        }
+        salida.add(linea);
+      }
+    } catch (InterruptedException e) {
+      // El shell queda con salida a medio leer: se descarta
+      cerrar();
+      Thread.currentThread().interrupt();
+      throw new IOException("Comando adb interrumpido: " + comando, e);
+    }
+  }
+
+  /**
+   * Ejecuta un comando con adb exec-out y devuelve su salida binaria sin alterar. No pasa por el shell
+   * persistente, así que no se serializa con los muestreos del dispositivo.
+   */
+  public byte[] ejecutarBinario(String comando, long timeoutMs) throws IOException {
+    List<String> argumentos = comandoAdb();
+    argumentos.add("exec-out");
+    argumentos.add(comando);
+    Process exec = new ProcessBuilder(argumentos).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+    ScheduledFuture<?> vencimiento = VIGILANTE.schedule(() -> {
+      exec.descendants().forEach(ProcessHandle::destroyForcibly);
+      exec.destroyForcibly();
+    }, timeoutMs, TimeUnit.MILLISECONDS);
+    try {
+      byte[] salida = exec.getInputStream().readAllBytes();
+      int codigo = exec.waitFor();
+      if (!vencimiento.cancel(false)) {
+        throw new IOException("adb exec-out sin respuesta en " + timeoutMs + " ms: " + comando);
+      }
+      if (codigo != 0) {
+        throw new IOException("adb exec-out terminó con código " + codigo + ": " + comando);
+      }
+      return salida;
+    } catch (InterruptedException e) {
+      exec.destroyForcibly();
+      Thread.currentThread().interrupt();
+      throw new IOException("Comando adb interrumpido: " + comando, e);
+    } finally {
+      vencimiento.cancel(false);
+    }
+  }
+
+  private List<String> comandoAdb() throws IOException {
+    List<String> comando = new ArrayList<>();
+    comando.add("adb");
+    if (!udid.isEmpty()) {
+      comando.add("-s");
+      comando.add(udid);
+    } else {
+      verificarDispositivoUnico();
+    }
+    return comando;
+  }
+
+  /**
+   * Sin udid, adb solo funciona con un dispositivo conectado; con varios falla con "more than one
+   * device/emulator". Se comprueba una vez por canal para fallar con un mensaje que diga qué hacer.
+   */
+  private synchronized void verificarDispositivoUnico() throws IOException {
+    if (dispositivoUnicoVerificado) {
+      return;
+    }
+    Process devices = new ProcessBuilder("adb", "devices").redirectErrorStream(true).start();
+    List<String> conectados = new ArrayList<>();
+    try (BufferedReader lector = new BufferedReader(
+            new InputStreamReader(devices.getInputStream(), StandardCharsets.UTF_8))) {
+      String linea;
+      while ((linea = lector.readLine()) != null) {
+        String[] partes = linea.trim().split("\\s+");
+        if (partes.length == 2 && !linea.startsWith("List of devices") && !linea.startsWith("*")) {
+          conectados.add(partes[0]);
+        }
+      }
+    }
+    if (conectados.size() > 1) {
+      throw new IOException("Hay " + conectados.size() + " dispositivos conectados " + conectados
+              + " y el canal adb no tiene udid: defina dispositivos (PoolDispositivos) o appium.udid");
+    }
+    dispositivoUnicoVerificado = true;
+  }
+
+  private void abrir() throws IOException {
+    List<String> comando = comandoAdb();
+    comando.add("shell");
+    proceso = new ProcessBuilder(comando).redirectErrorStream(true).start();
+    entrada = new BufferedWriter(new OutputStreamWriter(proceso.getOutputStream(), StandardCharsets.UTF_8));
+    BlockingQueue<String> cola = new LinkedBlockingQueue<>();
+    lineas = cola;
+    BufferedReader lector = new BufferedReader(new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8));
+    Thread hilo = new Thread(() -> {
+      try {
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+          cola.add(linea);
+        }
+      } catch (IOException e) {
+        LOGGER.fine("Canal adb cerrado: " + e.getMessage());
+      }
+    }, "canal-adb-" + (udid.isEmpty() ? "local" : udid));
+    hilo.setDaemon(true);
+    hilo.start();
+    LOGGER.fine("Canal adb abierto para " + (udid.isEmpty() ? "el dispositivo local" : udid));
+  }
+
+  private synchronized void cerrar() {
+    if (proceso != null) {
+      proceso.destroy();
+      proceso = null;
+      entrada = null;
+      lineas = null;
+    }
+  }
+
+  private static void cerrarTodos() {
+    CANALES.values().forEach(CanalAdb::cerrar);
+    CANALES.clear();
+  }
+}
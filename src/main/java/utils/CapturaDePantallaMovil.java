@@ -1,59 +1,85 @@
 package utils;
 
 import net.thucydides.core.webdriver.SerenityWebdriverManager;
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
+import utils.jfr.ScreenshotEvent;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class CapturaDePantallaMovil {
 
   private static final Logger LOGGER = Logger.getLogger(CapturaDePantallaMovil.class.getName());
-  private static final String CAPTURAS_DIR = "Capturas/";
 
-  public static String tomarCapturaPantalla(String nombreCaptura) {
-    String rutaDestino = "";
-    try {
-      // Obtener fecha y hora actual en formato seguro para nombres de archivo
-      //   String formattedDateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd_MM_yyyy_HH_mm_ss"));
-      String nombreNormalizado = nombreCaptura
-              .toLowerCase()
-              .replaceAll("[^a-z0-9]", "_");  // Reemplaza todo lo que no sea letra o número
-
-      String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-      String nombreArchivo = nombreNormalizado + "_" + timestamp + ".png";
-      rutaDestino = CAPTURAS_DIR + nombreArchivo;
-      //  rutaDestino = CAPTURAS_DIR + nombreArchivo;
-
-      // Verificar si la carpeta Capturas/ existe, si no, crearla
-      File carpetaCapturas = new File(CAPTURAS_DIR);
-      if (!carpetaCapturas.exists()) {
-        carpetaCapturas.mkdirs();
-      }
+  // Deduplicación perceptual: pasos consecutivos sobre la misma pantalla reutilizan la captura.
+  // Desactivada por defecto: un cambio pequeño (un campo llenado, un mensaje) puede quedar bajo el umbral
+  private static final boolean DEDUP_HABILITADO =
+          Boolean.parseBoolean(System.getProperty("evidencia.dedup.habilitado", "false"));
+  private static final int DEDUP_UMBRAL =
+          Integer.parseInt(System.getProperty("evidencia.dedup.umbral", "4"));
 
+  // La última captura (para deduplicar) es del escenario del hilo: ver ScenarioContext
+  public static void reiniciar() {
+    ScenarioContext contexto = ScenarioContext.actual();
+    contexto.ultimoHash = null;
+    contexto.ultimaCaptura = null;
+    contexto.ultimoSha = null;
+  }
+
+  public static String tomarCapturaPantalla(int indice, String nombreCaptura) {
+    try {
       // Obtener el WebDriver actual y tomar la captura
       TakesScreenshot screenshotTaker = (TakesScreenshot) SerenityWebdriverManager.inThisTestThread().getCurrentDriver();
-      File captura = screenshotTaker.getScreenshotAs(OutputType.FILE);
-      File destinoTemporal = new File(CAPTURAS_DIR + "temp.png");
+      byte[] captura = screenshotTaker.getScreenshotAs(OutputType.BYTES);
 
-      // Guardar la captura temporalmente
-      FileUtils.copyFile(captura, destinoTemporal);
+      // Cargar la imagen en memoria (sin archivo temporal compartido en Capturas/)
+      BufferedImage imagen = ImageIO.read(new ByteArrayInputStream(captura));
 
-      // Cargar la imagen correctamente
-      BufferedImage imagen = ImageIO.read(destinoTemporal);
       if (imagen == null) {
         LOGGER.severe("No se pudo cargar la imagen, ImageIO.read() devolvió null.");
         return "";
       }
+      return guardarCaptura(indice, nombreCaptura, imagen);
+    } catch (IOException e) {
+      LOGGER.log(Level.SEVERE, "Error al tomar o guardar la captura de pantalla: " + nombreCaptura, e);
+    }
+    return "";
+  }
+
+  /**
+   * Guarda una imagen ya obtenida (captura directa o fotograma de video) como evidencia del paso.
+   * El archivo se nombra con el SHA-256 del PNG, se escribe en el directorio propio del escenario
+   * ({@link DirectoriosEvidencia}) y queda registrado en {@link ManifiestoEvidencia}.
+   */
+  public static String guardarCaptura(int indice, String nombreCaptura, BufferedImage imagen) {
+    ScreenshotEvent evento = new ScreenshotEvent();
+    evento.begin();
+    try {
+      Path directorio = DirectoriosEvidencia.delEscenario();
+      ScenarioContext contexto = ScenarioContext.actual();
+      Long ultimoHash = contexto.ultimoHash;
+      File ultimaCaptura = contexto.ultimaCaptura;
+
+      // Si la pantalla es casi idéntica a la captura anterior, se referencia la misma imagen
+      Long hash = DEDUP_HABILITADO ? HashPerceptual.calcular(imagen) : null;
+      if (hash != null && ultimoHash != null && ultimaCaptura != null && ultimaCaptura.exists()
+              && HashPerceptual.distancia(hash, ultimoHash) <= DEDUP_UMBRAL) {
+        ManifiestoEvidencia.registrar(indice, nombreCaptura, ultimaCaptura, contexto.ultimoSha);
+        LOGGER.info("Captura casi idéntica a la anterior, se reutiliza: " + ultimaCaptura.getPath());
+        registrarEvento(evento, nombreCaptura, imagen, ultimaCaptura.length(), 0L, true);
+        return ultimaCaptura.getPath();
+      }
 
       // Crear una nueva imagen con el mismo tamaño
       BufferedImage imagenConBorde = new BufferedImage(imagen.getWidth(), imagen.getHeight(), BufferedImage.TYPE_INT_RGB);
@@ -66,17 +92,46 @@ public class CapturaDePantallaMovil {
       g2d.drawRect(2, 2, imagen.getWidth() - 4, imagen.getHeight() - 4);
       g2d.dispose();
 
-      // Guardar la imagen con el borde
-      File destinoFinal = new File(rutaDestino);
-      ImageIO.write(imagenConBorde, "png", destinoFinal);
+      // Nombre direccionado por contenido: sin colisiones aunque dos capturas caigan en el mismo segundo
+      long inicioCodificacion = System.nanoTime();
+      ByteArrayOutputStream png = new ByteArrayOutputStream();
+      ImageIO.write(imagenConBorde, "png", png);
+      byte[] contenido = png.toByteArray();
+      long codificacion = System.nanoTime() - inicioCodificacion;
+      String sha = ManifiestoEvidencia.sha256(contenido);
+      File destinoFinal = directorio.resolve(sha.substring(0, 32) + ".png").toFile();
+      if (!destinoFinal.exists()) {
+        // Escritura atómica: nadie ve nunca un PNG a medio escribir con el nombre final
+        Path temporal = Files.createTempFile(directorio, "captura_", ".tmp");
+        Files.write(temporal, contenido);
+        Files.move(temporal, destinoFinal.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      }
 
-      // Eliminar el archivo temporal
-      destinoTemporal.delete();
+      contexto.ultimoHash = hash;
+      contexto.ultimaCaptura = destinoFinal;
+      contexto.ultimoSha = sha;
+      ManifiestoEvidencia.registrar(indice, nombreCaptura, destinoFinal, sha);
 
-      LOGGER.info("Captura de pantalla guardada con borde rojo: " + rutaDestino);
+      LOGGER.info("Captura de pantalla guardada con borde rojo: " + destinoFinal.getPath());
+      registrarEvento(evento, nombreCaptura, imagen, contenido.length, codificacion, false);
+      return destinoFinal.getPath();
     } catch (IOException e) {
-      LOGGER.log(Level.SEVERE, "Error al tomar o guardar la captura de pantalla: " + nombreCaptura, e);
+      LOGGER.log(Level.SEVERE, "Error al guardar la captura de pantalla: " + nombreCaptura, e);
+    }
+    return "";
+  }
+
+  private static void registrarEvento(ScreenshotEvent evento, String nombre, BufferedImage imagen,
+                                      long bytes, long codificacion, boolean reutilizada) {
+    evento.end();
+    if (evento.shouldCommit()) {
+      evento.nombre = nombre;
+      evento.bytes = bytes;
+      evento.codificacion = codificacion;
+      evento.ancho = imagen.getWidth();
+      evento.alto = imagen.getHeight();
+      evento.reutilizada = reutilizada;
+      evento.commit();
     }
-    return rutaDestino;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Cola compartida de escenarios: cada escenario lo ejecuta solo quien lo reclama primero.
+ *
+ * Dentro de una JVM basta un conjunto en memoria. Con cola.escenarios.dir (lo fija la tarea
+ * testDistribuido de build.gradle para todos sus procesos) el reclamo es un archivo creado de forma
+ * atómica en ese directorio: el sistema de archivos decide el ganador entre procesos, sin servidor ni
+ * bloqueos, y cada proceso toma el siguiente escenario libre en cuanto termina el anterior.
+ */
+public class ColaEscenarios {
+
+  private static final Logger LOGGER = Logger.getLogger(ColaEscenarios.class.getName());
+
+  private static final String DIRECTORIO = System.getProperty("cola.escenarios.dir", "");
+  private static final Set<String> reclamadosLocal = ConcurrentHashMap.newKeySet();
+
+  private ColaEscenarios() {}
+
+  /**
+   * true si la cola se comparte entre procesos.
+   */
+  public static boolean distribuida() {
+    return !DIRECTORIO.isEmpty();
+  }
+
+  public static boolean reclamar(String escenario) {
+    if (!distribuida()) {
+      return reclamadosLocal.add(escenario);
+    }
+    Path reclamo = Paths.get(DIRECTORIO, escenario.replaceAll("[^a-zA-Z0-9._-]", "_") + ".reclamo");
+    try {
+      Files.createDirectories(reclamo.getParent());
+      Files.write(Files.createFile(reclamo),
+              (DirectoriosEvidencia.idFork() + " " + Thread.currentThread().getName()).getBytes());
+      return true;
+    } catch (FileAlreadyExistsException e) {
+      return false;
+    } catch (IOException e) {
+      // Ante un error de disco es preferible ejecutar el escenario dos veces que no ejecutarlo
+      LOGGER.warning("No se pudo reclamar el escenario " + escenario + ", se ejecuta igual: " + e.getMessage());
+      return true;
+    }
+  }
+}
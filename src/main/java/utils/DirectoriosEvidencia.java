@@ -0,0 +1,78 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Directorios de evidencia aislados: Capturas/&lt;ejecución&gt;/&lt;fork&gt;/&lt;escenario&gt;/.
+ *
+ * La ejecución se toma de evidencia.run.id (build.gradle fija el mismo valor para todos los forks de
+ * una corrida) y el fork de org.gradle.test.worker, o del pid si se corre fuera de Gradle. Cada
+ * escenario escribe solo en su directorio y solo ese directorio se borra al terminar su reporte, así
+ * que varios forks o hilos nunca ven ni eliminan capturas ajenas.
+ */
+public class DirectoriosEvidencia {
+
+  private static final String CAPTURAS_DIR = "Capturas";
+
+  private static final String ID_EJECUCION = System.getProperty("evidencia.run.id",
+          LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")));
+  private static final String ID_FORK = "fork_" + System.getProperty("org.gradle.test.worker",
+          "pid" + ProcessHandle.current().pid());
+  private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+  private DirectoriosEvidencia() {}
+
+  public static String idEjecucion() {
+    return ID_EJECUCION;
+  }
+
+  public static String idFork() {
+    return ID_FORK;
+  }
+
+  /**
+   * Directorio del escenario del hilo actual; se crea en el primer uso.
+   */
+  public static Path delEscenario() throws IOException {
+    ScenarioContext contexto = ScenarioContext.actual();
+    if (contexto.directorioEvidencia == null) {
+      String nombre = contexto.getNombreEscenario().isEmpty()
+              ? "sin_escenario" : contexto.getNombreEscenario().replaceAll("[^a-zA-Z0-9]", "_");
+      if (nombre.length() > 60) {
+        nombre = nombre.substring(0, 60);
+      }
+      Path directorio = Paths.get(CAPTURAS_DIR, ID_EJECUCION, ID_FORK,
+              String.format("%03d_%s", SECUENCIA.incrementAndGet(), nombre));
+      Files.createDirectories(directorio);
+      contexto.directorioEvidencia = directorio;
+    }
+    return contexto.directorioEvidencia;
+  }
+
+  /**
+   * Directorio del escenario del hilo actual bajo otra raíz (raiz/&lt;ejecución&gt;/&lt;fork&gt;/&lt;escenario&gt;/),
+   * para evidencia que debe sobrevivir al borrado del directorio de capturas. Se crea si no existe.
+   */
+  public static Path bajo(Path raiz) throws IOException {
+    Path directorio = raiz.resolve(Paths.get(CAPTURAS_DIR).relativize(delEscenario()));
+    Files.createDirectories(directorio);
+    return directorio;
+  }
+
+  /**
+   * Suelta el directorio del escenario actual y lo devuelve (null si no se creó): pasa a ser de su
+   * instantánea y la siguiente captura del hilo abre uno nuevo.
+   */
+  public static Path liberar() {
+    ScenarioContext contexto = ScenarioContext.actual();
+    Path directorio = contexto.directorioEvidencia;
+    contexto.directorioEvidencia = null;
+    return directorio;
+  }
+}
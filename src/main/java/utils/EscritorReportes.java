@@ -0,0 +1,103 @@
+package utils;
+
+import utils.metricas.Metricas;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Escritor de reportes en segundo plano.
+ *
+ * El hook @After solo toma la {@link InstantaneaEscenario} y la encola; el docx se construye en un
+ * hilo aparte mientras el dispositivo ya ejecuta el siguiente escenario. Al final de la suite se
+ * esperan los reportes pendientes con un timeout (reporte.espera.timeout.segundos).
+ */
+public class EscritorReportes {
+
+  private static final Logger LOGGER = Logger.getLogger(EscritorReportes.class.getName());
+
+  private static final boolean ASINCRONO =
+          Boolean.parseBoolean(System.getProperty("reporte.asincrono", "true"));
+  private static final long TIMEOUT_SEGUNDOS =
+          Long.parseLong(System.getProperty("reporte.espera.timeout.segundos", "300"));
+
+  private static final AtomicInteger pendientes = new AtomicInteger();
+  private static ExecutorService hilo;
+
+  private EscritorReportes() {}
+
+  public static void enviar(InstantaneaEscenario instantanea) {
+    ManifiestoEjecucion.registrar(instantanea);
+    if (!ASINCRONO) {
+      renderizar(instantanea);
+      return;
+    }
+    pendientes.incrementAndGet();
+    executor().submit(() -> {
+      try {
+        renderizar(instantanea);
+      } finally {
+        pendientes.decrementAndGet();
+      }
+    });
+  }
+
+  /**
+   * Genera el reporte de la instantánea en el hilo que lo invoca.
+   */
+  public static void renderizar(InstantaneaEscenario instantanea) {
+    long inicio = System.nanoTime();
+    String formato = "docx";
+    try {
+      if (HtmlReporte.activo()) {
+        formato = "html";
+        HtmlReporte.generarReporte(instantanea);
+      } else if (ReporteSuite.activo()) {
+        formato = "suite";
+        ReporteSuite.agregarEscenario(instantanea);
+      } else {
+        WordAppium.generarReporte(instantanea);
+      }
+      Metricas.reporte(formato, System.nanoTime() - inicio);
+    } catch (RuntimeException e) {
+      LOGGER.log(Level.SEVERE, "Error generando el reporte de: " + instantanea.getNombreEscenario(), e);
+    }
+  }
+
+  private static synchronized ExecutorService executor() {
+    if (hilo == null) {
+      hilo = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "escritor-reportes");
+        t.setDaemon(true);
+        return t;
+      });
+      FinSuite.registrar("reportes-pendientes", EscritorReportes::esperarPendientes);
+    }
+    return hilo;
+  }
+
+  public static void esperarPendientes() {
+    ExecutorService actual;
+    synchronized (EscritorReportes.class) {
+      actual = hilo;
+      hilo = null;
+    }
+    if (actual == null) {
+      return;
+    }
+    System.out.println("⏳ Esperando " + pendientes.get() + " reporte(s) pendiente(s)...");
+    actual.shutdown();
+    try {
+      if (!actual.awaitTermination(TIMEOUT_SEGUNDOS, TimeUnit.SECONDS)) {
+        LOGGER.severe("Timeout esperando reportes: " + pendientes.get() + " sin terminar.");
+        actual.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,15 +1,41 @@
 package utils;
 
+/**
+ * Estado de la prueba en curso. Delegado a {@link ScenarioContext}: cada hilo ve solo su escenario.
+ */
 public class EstadoPrueba {
-  public static boolean fallo = false;
-  public static String pasoFallido = "";
-  public static long inicio = 0L;
-  public static long fin = 0L;
+
+  public static boolean isFallo() {
+    return ScenarioContext.actual().isFallo();
+  }
+
+  public static String getPasoFallido() {
+    return ScenarioContext.actual().getPasoFallido();
+  }
+
+  public static void marcarFallo(String pasoFallido) {
+    ScenarioContext contexto = ScenarioContext.actual();
+    contexto.setFallo(true);
+    contexto.setPasoFallido(pasoFallido);
+  }
+
+  public static long getInicio() {
+    return ScenarioContext.actual().getInicio();
+  }
+
+  public static long getFin() {
+    return ScenarioContext.actual().getFin();
+  }
+
+  public static void finalizar() {
+    ScenarioContext.actual().setFin(System.currentTimeMillis());
+  }
 
   public static void reset() {
-    fallo = false;
-    pasoFallido = null;
-    inicio = System.currentTimeMillis();
-    fin = 0;
+    ScenarioContext contexto = ScenarioContext.actual();
+    contexto.setFallo(false);
+    contexto.setPasoFallido(null);
+    contexto.setInicio(System.currentTimeMillis());
+    contexto.setFin(0);
   }
 }
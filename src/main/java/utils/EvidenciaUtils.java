@@ -5,14 +5,29 @@ import net.serenitybdd.core.Serenity;
 
 public class EvidenciaUtils {
 
-    private static int contadorPasos = 1;
-
     public static void registrarCaptura(String paso) {
-        String pasoNumerado = contadorPasos++ + ". " + paso;
+        long inicio = Telemetria.inicio(Telemetria.Categoria.CAPTURA);
+        try {
+            registrar(paso);
+        } finally {
+            Telemetria.fin(Telemetria.Categoria.CAPTURA, inicio);
+        }
+    }
+
+    private static void registrar(String paso) {
+        String pasoNumerado = ScenarioContext.actual().siguientePaso() + ". " + paso;
 
         // Registrar en tu sistema actual
-        ReportHooks.registrarPaso(pasoNumerado);
-        CapturaDePantallaMovil.tomarCapturaPantalla(pasoNumerado);
+        int indice = ReportHooks.registrarPaso(pasoNumerado);
+
+        // En modo video solo se anota el instante; el fotograma se extrae al final del escenario
+        if (GrabacionPantalla.modoVideoActivo()) {
+            GrabacionPantalla.marcarPaso(indice, pasoNumerado);
+            Serenity.recordReportData().withTitle(paso).andContents(pasoNumerado);
+            return;
+        }
+
+        CapturaDePantallaMovil.tomarCapturaPantalla(indice, pasoNumerado);
 
         // Integrar con Serenity (versión simple)
         Serenity.recordReportData().withTitle(paso).andContents(pasoNumerado);
@@ -20,6 +35,8 @@ public class EvidenciaUtils {
     }
 
     public static void reiniciarContador() {
-        contadorPasos = 1;
+        ScenarioContext.actual().reiniciarContador();
+        CapturaDePantallaMovil.reiniciar();
+        ManifiestoEvidencia.reiniciar();
     }
 }
\ No newline at end of file
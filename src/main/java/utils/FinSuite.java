@@ -0,0 +1,75 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Acciones de fin de suite (esperar reportes pendientes, volcar métricas, etc.).
+ *
+ * Cucumber 2 no tiene un hook "after all", así que las acciones se ejecutan una sola vez desde el
+ * runner al terminar ({@code CustomRunner}) o, en su defecto, desde un shutdown hook de la JVM.
+ * Una acción registrada cuando las de fin de suite ya terminaron se ejecuta en el acto.
+ */
+public class FinSuite {
+
+  private static final Logger LOGGER = Logger.getLogger(FinSuite.class.getName());
+
+  private static final Map<String, Runnable> acciones = new LinkedHashMap<>();
+  private static boolean ejecutada = false;
+  private static boolean terminada = false;
+  private static boolean hookRegistrado = false;
+
+  private FinSuite() {}
+
+  /**
+   * Registra una acción por nombre; registrar el mismo nombre dos veces no la duplica. Si el fin de
+   * suite ya terminó (p. ej. un reporte que escribe métricas tarde), la acción nueva se ejecuta ya.
+   */
+  public static void registrar(String nombre, Runnable accion) {
+    synchronized (FinSuite.class) {
+      if (acciones.putIfAbsent(nombre, accion) != null || !terminada) {
+        if (!hookRegistrado) {
+          Runtime.getRuntime().addShutdownHook(new Thread(FinSuite::ejecutar, "fin-suite"));
+          hookRegistrado = true;
+        }
+        return;
+      }
+    }
+    correr(nombre, accion);
+  }
+
+  /**
+   * Ejecuta las acciones en orden de registro. Las que se registren mientras se ejecutan las
+   * anteriores (p. ej. desde un reporte pendiente) también se ejecutan.
+   */
+  public static void ejecutar() {
+    synchronized (FinSuite.class) {
+      if (ejecutada) {
+        return;
+      }
+      ejecutada = true;
+    }
+    for (int i = 0; ; i++) {
+      Map.Entry<String, Runnable> accion;
+      synchronized (FinSuite.class) {
+        if (i >= acciones.size()) {
+          terminada = true;
+          return;
+        }
+        accion = new ArrayList<>(acciones.entrySet()).get(i);
+      }
+      correr(accion.getKey(), accion.getValue());
+    }
+  }
+
+  private static void correr(String nombre, Runnable accion) {
+    try {
+      accion.run();
+    } catch (RuntimeException e) {
+      LOGGER.log(Level.SEVERE, "Error en la acción de fin de suite: " + nombre, e);
+    }
+  }
+}
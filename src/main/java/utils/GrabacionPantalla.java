@@ -0,0 +1,218 @@
+package utils;
+
+import io.appium.java_client.android.AndroidStartScreenRecordingOptions;
+import io.appium.java_client.screenrecording.CanRecordScreen;
+import net.thucydides.core.webdriver.SerenityWebdriverManager;
+import net.thucydides.core.webdriver.WebDriverFacade;
+import org.openqa.selenium.WebDriver;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Modo de evidencia por video (evidencia.modo=VIDEO).
+ *
+ * La grabación de pantalla se inicia una sola vez por escenario. Cada paso solo anota su instante
+ * relativo al inicio del video y, al terminar el escenario, los fotogramas se extraen con ffmpeg y
+ * pasan por el mismo flujo de {@link CapturaDePantallaMovil} que usa {@link WordAppium}.
+ *
+ * El inicio del video se ancla al reloj del dispositivo: startRecordingScreen vuelve con un retraso
+ * variable respecto del arranque de screenrecord, así que ese arranque se lee de /proc en el
+ * dispositivo y se traslada al reloj del host (ver {@link #inicioEnDispositivo(long)}).
+ */
+public class GrabacionPantalla {
+
+  private static final Logger LOGGER = Logger.getLogger(GrabacionPantalla.class.getName());
+
+  private static final String REPORTES_DIR = System.getProperty("user.dir") + File.separator + "reportes";
+
+  private static final boolean MODO_VIDEO =
+          "VIDEO".equalsIgnoreCase(System.getProperty("evidencia.modo", "CAPTURA"));
+  private static final String FFMPEG = System.getProperty("evidencia.ffmpeg", "ffmpeg");
+  private static final int LIMITE_SEGUNDOS =
+          Integer.parseInt(System.getProperty("evidencia.video.limite.segundos", "1800"));
+  private static final boolean CONSERVAR_VIDEO =
+          Boolean.parseBoolean(System.getProperty("evidencia.video.conservar", "false"));
+  private static final long TIMEOUT_ADB_MS = 10_000L;
+  // USER_HZ de los kernels de Android: unidad de starttime en /proc/<pid>/stat
+  private static final double TICKS_POR_SEGUNDO = 100.0;
+  // Un arranque leído más atrás que esto respecto del retorno del comando no es de esta grabación
+  private static final long MAX_ADELANTO_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  // Estado de la grabación en curso: vive en el ScenarioContext del hilo
+  static class Marca {
+    private final int indice;
+    private final String paso;
+    private final long offsetMs;
+
+    private Marca(int indice, String paso, long offsetMs) {
+      this.indice = indice;
+      this.paso = paso;
+      this.offsetMs = offsetMs;
+    }
+  }
+
+  public static boolean modoVideoActivo() {
+    return MODO_VIDEO;
+  }
+
+  /**
+   * Registra el instante del paso. La primera marca del escenario inicia la grabación.
+   */
+  public static void marcarPaso(int indice, String pasoNumerado) {
+    ScenarioContext contexto = ScenarioContext.actual();
+    if (!contexto.grabando) {
+      iniciar(contexto);
+    }
+    long offsetMs = contexto.grabando
+            ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - contexto.inicioGrabacionNanos) : 0L;
+    contexto.marcasVideo.add(new Marca(indice, pasoNumerado, offsetMs));
+  }
+
+  private static void iniciar(ScenarioContext contexto) {
+    try {
+      grabadora().startRecordingScreen(
+              AndroidStartScreenRecordingOptions.startAndroidScreenRecordingOptions()
+                      .withTimeLimit(Duration.ofSeconds(LIMITE_SEGUNDOS)));
+      contexto.inicioGrabacionNanos = inicioEnDispositivo(System.nanoTime());
+      contexto.grabando = true;
+      LOGGER.info("Grabación de pantalla iniciada para el escenario.");
+    } catch (Exception e) {
+      LOGGER.log(Level.WARNING, "No se pudo iniciar la grabación de pantalla", e);
+    }
+  }
+
+  /**
+   * Instante, en System.nanoTime() del host, en que arrancó screenrecord en el dispositivo: se leen en
+   * un solo comando el uptime del dispositivo y el starttime del proceso, y la lectura se fecha en el
+   * punto medio del comando. Si no se puede leer, se usa el retorno de startRecordingScreen.
+   */
+  private static long inicioEnDispositivo(long retornoNanos) {
+    try {
+      long antes = System.nanoTime();
+      List<String> salida = CanalAdb.actual().ejecutar(
+              "cat /proc/uptime; for p in $(pidof screenrecord); do cat /proc/$p/stat; done", TIMEOUT_ADB_MS);
+      long lectura = (antes + System.nanoTime()) / 2;
+      double uptime = Double.parseDouble(salida.get(0).trim().split("\\s+")[0]);
+      // El más reciente: puede quedar un screenrecord del escenario anterior terminando
+      long arranque = -1L;
+      for (String linea : salida.subList(1, salida.size())) {
+        // Tras el nombre entre paréntesis, starttime es el campo 22 de stat (índice 19 desde el estado)
+        int parentesis = linea.lastIndexOf(')');
+        if (parentesis > 0) {
+          arranque = Math.max(arranque, Long.parseLong(linea.substring(parentesis + 2).split(" ")[19]));
+        }
+      }
+      if (arranque < 0) {
+        LOGGER.fine("screenrecord no aparece en el dispositivo; el video se ancla al retorno del comando");
+        return retornoNanos;
+      }
+      // Ambos relojes del dispositivo tienen resolución de 10 ms: el inicio nunca pasa del retorno
+      long inicio = Math.min(retornoNanos, lectura - (long) ((uptime - arranque / TICKS_POR_SEGUNDO) * 1e9));
+      if (retornoNanos - inicio > MAX_ADELANTO_NANOS) {
+        LOGGER.fine("Arranque de screenrecord fuera de rango; el video se ancla al retorno del comando");
+        return retornoNanos;
+      }
+      LOGGER.fine(String.format(Locale.ROOT, "screenrecord arrancó %.0f ms antes del retorno de startRecordingScreen",
+              (retornoNanos - inicio) / 1e6));
+      return inicio;
+    } catch (IOException | RuntimeException e) {
+      LOGGER.fine("No se pudo leer el arranque de screenrecord: " + e.getMessage());
+      return retornoNanos;
+    }
+  }
+
+  /**
+   * Detiene la grabación, extrae un fotograma por paso y conserva el video si el escenario falló.
+   */
+  public static void finalizar(String nombreEscenario, boolean fallo) {
+    ScenarioContext contexto = ScenarioContext.actual();
+    List<Marca> marcas = contexto.marcasVideo;
+    if (!contexto.grabando) {
+      marcas.clear();
+      return;
+    }
+    Path video = null;
+    try {
+      String base64 = grabadora().stopRecordingScreen();
+      Path directorio = DirectoriosEvidencia.delEscenario();
+      video = directorio.resolve("video_" + System.currentTimeMillis() + ".mp4");
+      Files.write(video, Base64.getMimeDecoder().decode(base64));
+
+      for (Marca marca : marcas) {
+        extraerFotograma(video, directorio, marca);
+      }
+
+      if (fallo || CONSERVAR_VIDEO) {
+        new File(REPORTES_DIR).mkdirs();
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        Path destino = Paths.get(REPORTES_DIR,
+                "Video_" + nombreEscenario.replaceAll("\\s+", "_") + "_" + timestamp + ".mp4");
+        Files.move(video, destino, StandardCopyOption.REPLACE_EXISTING);
+        LOGGER.info("Video del escenario guardado en: " + destino);
+      } else {
+        Files.deleteIfExists(video);
+      }
+    } catch (Exception e) {
+      LOGGER.log(Level.SEVERE, "Error al finalizar la grabación de pantalla", e);
+    } finally {
+      contexto.grabando = false;
+      marcas.clear();
+    }
+  }
+
+  private static void extraerFotograma(Path video, Path directorio, Marca marca) {
+    Path fotograma = directorio.resolve("fotograma_temp.png");
+    try {
+      String segundos = String.format(Locale.ROOT, "%.3f", marca.offsetMs / 1000.0);
+      Process proceso = new ProcessBuilder(
+              FFMPEG, "-y", "-loglevel", "error",
+              "-ss", segundos, "-i", video.toString(),
+              "-frames:v", "1", fotograma.toString())
+              .redirectErrorStream(true)
+              .start();
+      proceso.getInputStream().transferTo(OutputStream.nullOutputStream());
+      if (proceso.waitFor() != 0 || !Files.exists(fotograma)) {
+        LOGGER.warning("ffmpeg no extrajo el fotograma del paso: " + marca.paso);
+        return;
+      }
+      BufferedImage imagen = ImageIO.read(fotograma.toFile());
+      if (imagen != null) {
+        CapturaDePantallaMovil.guardarCaptura(marca.indice, marca.paso, imagen);
+      }
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Error extrayendo el fotograma del paso: " + marca.paso, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      try {
+        Files.deleteIfExists(fotograma);
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  private static CanRecordScreen grabadora() {
+    WebDriver driver = SerenityWebdriverManager.inThisTestThread().getCurrentDriver();
+    if (driver instanceof WebDriverFacade) {
+      driver = ((WebDriverFacade) driver).getProxiedDriver();
+    }
+    return (CanRecordScreen) driver;
+  }
+}
@@ -0,0 +1,62 @@
+package utils;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Hash perceptual por diferencias (dHash) de 64 bits.
+ *
+ * La imagen se reduce a 9x8 en escala de grises y cada bit indica si un píxel es más claro que su
+ * vecino derecho. Dos capturas de la misma pantalla producen hashes con muy pocos bits distintos
+ * aunque el PNG cambie por el reloj, el cursor o la compresión. Cada celda es el promedio de todos los
+ * píxeles de su área: una reducción bilineal directa desde la resolución completa solo mira unos pocos
+ * píxeles por celda y dos pantallas distintas pueden dar el mismo hash.
+ */
+public class HashPerceptual {
+
+  private static final int ANCHO = 9;
+  private static final int ALTO = 8;
+
+  private HashPerceptual() {}
+
+  public static long calcular(BufferedImage imagen) {
+    double[][] reducida = reducir(imagen);
+    long hash = 0L;
+    for (int y = 0; y < ALTO; y++) {
+      for (int x = 0; x < ANCHO - 1; x++) {
+        hash = (hash << 1) | (reducida[y][x] > reducida[y][x + 1] ? 1L : 0L);
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Luminancia promedio de cada celda de la cuadrícula 9x8.
+   */
+  private static double[][] reducir(BufferedImage imagen) {
+    int ancho = imagen.getWidth();
+    int alto = imagen.getHeight();
+    double[][] suma = new double[ALTO][ANCHO];
+    long[][] cuenta = new long[ALTO][ANCHO];
+    int[] fila = new int[ancho];
+    for (int y = 0; y < alto; y++) {
+      imagen.getRGB(0, y, ancho, 1, fila, 0, ancho);
+      int celdaY = (int) ((long) y * ALTO / alto);
+      for (int x = 0; x < ancho; x++) {
+        int rgb = fila[x];
+        int celdaX = (int) ((long) x * ANCHO / ancho);
+        suma[celdaY][celdaX] += 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+        cuenta[celdaY][celdaX]++;
+      }
+    }
+    for (int y = 0; y < ALTO; y++) {
+      for (int x = 0; x < ANCHO; x++) {
+        suma[y][x] = cuenta[y][x] == 0 ? 0 : suma[y][x] / cuenta[y][x];
+      }
+    }
+    return suma;
+  }
+
+  public static int distancia(long a, long b) {
+    return Long.bitCount(a ^ b);
+  }
+}
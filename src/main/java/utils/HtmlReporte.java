@@ -0,0 +1,206 @@
+package utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Reporte de evidencias en HTML, alternativa liviana a {@link WordAppium} (reporte.formato=html).
+ *
+ * El archivo se escribe paso a paso con un BufferedWriter, sin armar el documento en memoria. Cada
+ * captura se copia completa a la carpeta &lt;reporte&gt;_archivos/ junto con una miniatura; la página
+ * muestra la miniatura con carga diferida (loading="lazy") y enlaza a la imagen completa.
+ */
+public class HtmlReporte {
+
+  private static final Logger LOGGER = Logger.getLogger(HtmlReporte.class.getName());
+
+  private static final boolean ACTIVO =
+          "html".equalsIgnoreCase(System.getProperty("reporte.formato", "docx"));
+
+  // Mismo tamaño de visualización que en el docx (puntos CSS)
+  private static final int MINIATURA_ANCHO = 150;
+  private static final int MINIATURA_ALTO = 270;
+
+  private HtmlReporte() {}
+
+  public static boolean activo() {
+    return ACTIVO;
+  }
+
+  public static void generarReporte(String nombreEscenario, String[] pasosEjecutados, String numero,
+                                    String duracionFormato, String pasoFallido, String estadoFinal) {
+    generarReporte(InstantaneaEscenario.capturar(nombreEscenario, pasosEjecutados, numero, duracionFormato, 0L,
+            pasoFallido, estadoFinal));
+  }
+
+  /**
+   * Devuelve false si el reporte no se pudo escribir (un escenario sin capturas no es un error).
+   */
+  public static boolean generarReporte(InstantaneaEscenario escenario) {
+    if (escenario.sinCapturas()) {
+      LOGGER.warning("No hay capturas para procesar.");
+      escenario.eliminarCapturas();
+      return true;
+    }
+
+    new File(WordAppium.REPORTES_DIR).mkdirs();
+    String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+    long inicio = System.nanoTime();
+    String rutaDestino = null;
+    Path archivos = null;
+    boolean generado = false;
+    try {
+      rutaDestino = WordAppium.reservarRuta(
+              "Prueba_" + escenario.getNombreEscenario().replaceAll("\\s+", "_") + "_" + timestamp, ".html");
+      File html = new File(rutaDestino);
+      String nombreArchivos = html.getName().replace(".html", "") + "_archivos";
+      archivos = html.toPath().resolveSibling(nombreArchivos);
+      Files.createDirectories(archivos);
+      // El nombre del escenario puede traer #, ?, % o tildes: en href/src va codificado
+      String carpeta = segmentoUrl(nombreArchivos);
+      System.out.println("📄 Guardando en: " + rutaDestino);
+
+      try (BufferedWriter out = Files.newBufferedWriter(html.toPath(), StandardCharsets.UTF_8)) {
+        escribirEncabezado(out, escenario);
+        // Pasos que comparten captura (deduplicada) reutilizan los mismos archivos
+        Map<File, Copia> copias = new HashMap<>();
+        int n = 0;
+        for (String paso : escenario.getPasos()) {
+          n++;
+          boolean fallido = paso.equalsIgnoreCase(escenario.getPasoFallido());
+          out.write("<section class=\"paso" + (fallido ? " fallido" : "") + "\"><h3>" + escapar(paso) + "</h3>\n");
+          File imagen = escenario.capturaDe(n);
+          if (imagen == null || !imagen.exists()) {
+            out.write("<p class=\"sin-imagen\">(No se encontró imagen para este paso)</p>\n");
+          } else {
+            Copia copia = copias.get(imagen);
+            if (copia == null) {
+              copia = copiarCaptura(imagen, archivos, String.format("%03d", n));
+              copias.put(imagen, copia);
+            }
+            out.write("<a href=\"" + carpeta + "/" + copia.completa + "\" target=\"_blank\"><img src=\""
+                    + carpeta + "/" + copia.miniatura + "\" loading=\"lazy\" width=\"" + MINIATURA_ANCHO
+                    + "\" height=\"" + MINIATURA_ALTO + "\" alt=\"" + escapar(paso) + "\"></a>\n");
+          }
+          out.write("</section>\n");
+        }
+        out.write("</body>\n</html>\n");
+      }
+      generado = true;
+      LOGGER.info(String.format("Reporte HTML generado en %d ms: %s",
+              (System.nanoTime() - inicio) / 1_000_000, rutaDestino));
+    } catch (IOException e) {
+      LOGGER.severe("Error generando el reporte HTML " + (rutaDestino == null ? "" : rutaDestino) + ": " + e.getMessage());
+    } finally {
+      // El archivo se reservó antes de renderizar: si falló no se deja una página vacía o a medias
+      if (!generado && rutaDestino != null) {
+        borrar(new File(rutaDestino).toPath(), archivos);
+      }
+    }
+
+    escenario.eliminarCapturas();
+    return generado;
+  }
+
+  private static void borrar(Path html, Path archivos) {
+    try {
+      Files.deleteIfExists(html);
+      if (archivos != null && Files.isDirectory(archivos)) {
+        try (DirectoryStream<Path> copias = Files.newDirectoryStream(archivos)) {
+          for (Path copia : copias) {
+            Files.deleteIfExists(copia);
+          }
+        }
+        Files.deleteIfExists(archivos);
+      }
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo borrar el reporte HTML incompleto " + html + ": " + e.getMessage());
+    }
+  }
+
+  private static void escribirEncabezado(BufferedWriter out, InstantaneaEscenario escenario) throws IOException {
+    boolean fallo = "FAILED".equalsIgnoreCase(escenario.getEstadoFinal());
+    out.write("<!DOCTYPE html>\n<html lang=\"es\">\n<head>\n<meta charset=\"UTF-8\">\n");
+    out.write("<title>" + escapar(escenario.getNombreEscenario()) + "</title>\n");
+    out.write("<style>body{font-family:Arial,sans-serif;margin:24px}"
+            + "table{border-collapse:collapse}td{padding:4px 12px;border:1px solid #ccc}"
+            + ".paso{margin:16px 0}.paso h3{font-size:14px;margin:4px 0}"
+            + ".fallido h3,.FAILED{color:#c62828}.PASSED{color:#2e7d32}"
+            + "img{border:1px solid #ddd;object-fit:contain}.sin-imagen{color:#888}</style>\n");
+    out.write("</head>\n<body>\n<h1>" + escapar(escenario.getNombreEscenario()) + "</h1>\n<table>\n");
+    fila(out, "Fecha", WordAppium.FORMATTER.format(LocalDateTime.now()));
+    fila(out, "Línea", escenario.getLinea());
+    fila(out, "Duración", escenario.getDuracionFormato());
+    out.write("<tr><td>Estado</td><td class=\"" + (fallo ? "FAILED" : "PASSED") + "\">"
+            + escapar(escenario.getEstadoFinal()) + "</td></tr>\n");
+    if (escenario.getPasoFallido() != null) {
+      fila(out, "Paso fallido", escenario.getPasoFallido());
+    }
+    for (Map.Entry<String, String> nota : escenario.getNotas().entrySet()) {
+      fila(out, nota.getKey(), nota.getValue());
+    }
+    out.write("</table>\n");
+  }
+
+  private static void fila(BufferedWriter out, String clave, String valor) throws IOException {
+    out.write("<tr><td>" + escapar(clave) + "</td><td>" + escapar(valor) + "</td></tr>\n");
+  }
+
+  /** Nombres, dentro de la carpeta de archivos, de la captura completa y de su miniatura. */
+  private static class Copia {
+    private final String completa;
+    private final String miniatura;
+
+    private Copia(String completa, String miniatura) {
+      this.completa = completa;
+      this.miniatura = miniatura;
+    }
+  }
+
+  /**
+   * Copia la captura completa y escribe su miniatura escalada con {@link EscaladorImagenes}.
+   */
+  private static Copia copiarCaptura(File imagen, Path archivos, String base) throws IOException {
+    String completa = base + ".png";
+    Files.copy(imagen.toPath(), archivos.resolve(completa), StandardCopyOption.REPLACE_EXISTING);
+    EscaladorImagenes.ImagenEscalada miniatura =
+            EscaladorImagenes.preparar(imagen, MINIATURA_ANCHO, MINIATURA_ALTO);
+    String nombre = base + "_min." + miniatura.getExtension();
+    Files.write(archivos.resolve(nombre), miniatura.getBytes());
+    return new Copia(completa, nombre);
+  }
+
+  private static String segmentoUrl(String texto) {
+    return URLEncoder.encode(texto, StandardCharsets.UTF_8).replace("+", "%20");
+  }
+
+  private static String escapar(String texto) {
+    if (texto == null) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder(texto.length());
+    for (char c : texto.toCharArray()) {
+      switch (c) {
+        case '<': sb.append("&lt;"); break;
+        case '>': sb.append("&gt;"); break;
+        case '&': sb.append("&amp;"); break;
+        case '"': sb.append("&quot;"); break;
+        case '\'': sb.append("&#39;"); break;
+        default: sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,140 @@
+package utils;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Copia inmutable de la evidencia de un escenario terminado.
+ *
+ * Al crearla, la instantánea se queda con el directorio de evidencia del escenario
+ * ({@link DirectoriosEvidencia}); el siguiente escenario del hilo abre uno nuevo, de modo que el
+ * reporte se escribe en segundo plano sin que ningún escenario, hilo o fork pise o borre los
+ * archivos de otro.
+ */
+public final class InstantaneaEscenario {
+
+  private static final Logger LOGGER = Logger.getLogger(InstantaneaEscenario.class.getName());
+
+  private final String nombreEscenario;
+  private final List<String> pasos;
+  private final String linea;
+  private final String duracionFormato;
+  private final long duracionMs;
+  private final String pasoFallido;
+  private final String estadoFinal;
+  private final Map<Integer, File> capturas;
+  private final File carpeta;
+  private final Map<String, String> notas;
+
+  public InstantaneaEscenario(String nombreEscenario, List<String> pasos, String linea, String duracionFormato,
+                              long duracionMs, String pasoFallido, String estadoFinal,
+                              Map<Integer, File> capturas, File carpeta) {
+    this(nombreEscenario, pasos, linea, duracionFormato, duracionMs, pasoFallido, estadoFinal, capturas, carpeta,
+            Collections.emptyMap());
+  }
+
+  public InstantaneaEscenario(String nombreEscenario, List<String> pasos, String linea, String duracionFormato,
+                              long duracionMs, String pasoFallido, String estadoFinal,
+                              Map<Integer, File> capturas, File carpeta, Map<String, String> notas) {
+    this.nombreEscenario = nombreEscenario;
+    this.pasos = Collections.unmodifiableList(new ArrayList<>(pasos));
+    this.linea = linea;
+    this.duracionFormato = duracionFormato;
+    this.duracionMs = duracionMs;
+    this.pasoFallido = pasoFallido;
+    this.estadoFinal = estadoFinal;
+    this.capturas = Collections.unmodifiableMap(new HashMap<>(capturas));
+    this.carpeta = carpeta;
+    this.notas = Collections.unmodifiableMap(new LinkedHashMap<>(notas));
+  }
+
+  /**
+   * Toma la instantánea del escenario actual a partir de {@link ManifiestoEvidencia} y lo reinicia.
+   */
+  public static InstantaneaEscenario capturar(String nombreEscenario, String[] pasos, String linea,
+                                              String duracionFormato, long duracionMs,
+                                              String pasoFallido, String estadoFinal) {
+    Map<Integer, File> capturas = new HashMap<>();
+    for (ManifiestoEvidencia.Entrada entrada : ManifiestoEvidencia.entradas()) {
+      capturas.put(entrada.getIndice(), new File(entrada.getArchivo()));
+    }
+    Map<String, String> notas = ScenarioContext.actual().getNotas();
+    Path directorio = DirectoriosEvidencia.liberar();
+    ManifiestoEvidencia.reiniciar();
+    CapturaDePantallaMovil.reiniciar();
+
+    return new InstantaneaEscenario(nombreEscenario, Arrays.asList(pasos), linea, duracionFormato, duracionMs,
+            pasoFallido, estadoFinal, capturas, directorio == null ? null : directorio.toFile(), notas);
+  }
+
+  public String getNombreEscenario() {
+    return nombreEscenario;
+  }
+
+  public List<String> getPasos() {
+    return pasos;
+  }
+
+  public String getLinea() {
+    return linea;
+  }
+
+  public String getDuracionFormato() {
+    return duracionFormato;
+  }
+
+  public long getDuracionMs() {
+    return duracionMs;
+  }
+
+  public String getPasoFallido() {
+    return pasoFallido;
+  }
+
+  public String getEstadoFinal() {
+    return estadoFinal;
+  }
+
+  /** Notas de rendimiento del escenario (ver {@link ScenarioContext#agregarNota}), en orden de registro. */
+  public Map<String, String> getNotas() {
+    return notas;
+  }
+
+  /**
+   * Captura del paso en la posición indice (1 para el primero de {@link #getPasos()}), o null si no tiene.
+   */
+  public File capturaDe(int indice) {
+    return capturas.get(indice);
+  }
+
+  public boolean sinCapturas() {
+    return capturas.isEmpty();
+  }
+
+  /**
+   * Borra el directorio de evidencia propio de la instantánea (y nada fuera de él), una vez generado el reporte. Con
+   * evidencia.conservar=true la carpeta se deja para {@link RenderizadorReportes}.
+   */
+  public void eliminarCapturas() {
+    if (carpeta == null || ManifiestoEjecucion.conservarEvidencia() || !carpeta.exists()) {
+      return;
+    }
+    File[] archivos = carpeta.listFiles();
+    if (archivos != null) {
+      for (File archivo : archivos) {
+        if (!archivo.delete()) {
+          LOGGER.warning("No se pudo eliminar la captura: " + archivo.getName());
+        }
+      }
+    }
+    carpeta.delete();
+  }
+}
@@ -0,0 +1,126 @@
+package utils;
+
+import com.google.gson.GsonBuilder;
+import utils.metricas.Metricas;
+import utils.metricas.RegistroMetricas;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Latencia del login de la Super App, medida por interactions.wait.ContinuarYMedirIngreso.
+ *
+ * Dos fases por login: del toque final en CONTINUAR a que desaparece la pantalla de carga (carga) y
+ * de ahí a que se ve el home (home). Si antes del home se interpone un diálogo (biometría, sesión
+ * abierta, términos), la segunda fase se registra como dialogo y la muestra no entra en home ni en
+ * total, que miden solo logins que llegan al home. Cada muestra queda como nota del escenario y en
+ * {@link Metricas}; al terminar la suite se imprimen p50/p90/p99 por método y fase y se guardan en
+ * target/telemetria/&lt;ejecución&gt;/login_&lt;fork&gt;.json.
+ *
+ * Métodos: CORREO y DOCUMENTO (los de tasks.Login.LoginOrquestado.Metodo) y REINGRESO, el ingreso con
+ * el usuario recordado de tasks.Login.IngresoSuperApp (solo contraseña, p. ej. tras una sesión cerrada
+ * por seguridad). REINGRESO no es un método de LoginOrquestado: se reporta aparte porque no recorre el
+ * formulario completo y mezclarlo con CORREO o DOCUMENTO bajaría sus percentiles.
+ */
+public class LatenciaLogin {
+
+  private static final Logger LOGGER = Logger.getLogger(LatenciaLogin.class.getName());
+
+  private static final String TELEMETRIA_DIR = "target" + File.separator + "telemetria";
+  private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+  // método -> fase -> muestras en ms
+  private static final Map<String, Map<String, List<Double>>> muestras = new TreeMap<>();
+
+  private LatenciaLogin() {}
+
+  /**
+   * Registra un login medido. Las fases no observadas van como NaN (p. ej. sin pantalla de carga o
+   * si el home no apareció en el tiempo de espera).
+   *
+   * @param pantalla lo que se vio al final de la fase home: "home", o el diálogo que se interpuso
+   */
+  public static void registrar(String metodo, double cargaMs, double cargaErrorMs,
+                               double homeMs, double homeErrorMs, String pantalla) {
+    boolean enHome = "home".equals(pantalla);
+    double totalMs = (Double.isNaN(cargaMs) ? 0 : cargaMs) + homeMs;
+    agregar(metodo, "carga", cargaMs);
+    agregar(metodo, enHome ? "home" : "dialogo", homeMs);
+    if (enHome) {
+      agregar(metodo, "total", totalMs);
+    }
+
+    StringBuilder nota = new StringBuilder();
+    nota.append(Double.isNaN(cargaMs) ? "sin pantalla de carga" : "carga " + ms(cargaMs, cargaErrorMs));
+    nota.append(" · ").append(pantalla).append(' ').append(Double.isNaN(homeMs) ? "no visible" : ms(homeMs, homeErrorMs));
+    if (!Double.isNaN(totalMs)) {
+      nota.append(" · total ").append(Math.round(totalMs)).append(" ms");
+    }
+    ScenarioContext.actual().agregarNota("Latencia login " + metodo, nota.toString());
+    System.out.println("⏱️ Login " + metodo + ": " + nota);
+  }
+
+  private static String ms(double valor, double error) {
+    return Math.round(valor) + " ms (±" + Math.round(error) + ")";
+  }
+
+  private static void agregar(String metodo, String fase, double valorMs) {
+    if (Double.isNaN(valorMs)) {
+      return;
+    }
+    Metricas.login(metodo, fase, valorMs);
+    synchronized (muestras) {
+      muestras.computeIfAbsent(metodo, k -> new LinkedHashMap<>())
+              .computeIfAbsent(fase, k -> new ArrayList<>()).add(valorMs);
+      FinSuite.registrar("latencia-login", LatenciaLogin::resumen);
+    }
+  }
+
+  /**
+   * p50/p90/p99 por método y fase.
+   */
+  public static Map<String, Map<String, Map<String, Double>>> percentiles() {
+    Map<String, Map<String, Map<String, Double>>> resultado = new TreeMap<>();
+    synchronized (muestras) {
+      muestras.forEach((metodo, fases) -> fases.forEach((fase, valores) -> {
+        double[] ordenados = valores.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        Map<String, Double> fila = new LinkedHashMap<>();
+        fila.put("n", (double) ordenados.length);
+        for (double p : PERCENTILES) {
+          fila.put("p" + Math.round(p * 100), (double) Math.round(RegistroMetricas.percentil(ordenados, p)));
+        }
+        resultado.computeIfAbsent(metodo, k -> new LinkedHashMap<>()).put(fase, fila);
+      }));
+    }
+    return resultado;
+  }
+
+  private static void resumen() {
+    Map<String, Map<String, Map<String, Double>>> tabla = percentiles();
+    System.out.println("\n⏱️ Latencia de login (ms)");
+    System.out.printf("%-12s %-7s %5s %8s %8s %8s%n", "método", "fase", "n", "p50", "p90", "p99");
+    tabla.forEach((metodo, fases) -> fases.forEach((fase, fila) ->
+            System.out.printf("%-12s %-7s %5.0f %8.0f %8.0f %8.0f%n", metodo, fase,
+                    fila.get("n"), fila.get("p50"), fila.get("p90"), fila.get("p99"))));
+
+    Path archivo = Paths.get(TELEMETRIA_DIR, DirectoriosEvidencia.idEjecucion(),
+            "login_" + DirectoriosEvidencia.idFork() + ".json");
+    try {
+      Files.createDirectories(archivo.getParent());
+      Files.write(archivo, new GsonBuilder().setPrettyPrinting().create().toJson(tabla)
+              .getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo guardar la latencia de login: " + e.getMessage());
+    }
+  }
+}
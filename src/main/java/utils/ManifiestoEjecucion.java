@@ -0,0 +1,176 @@
+package utils;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Manifiesto de evidencias de toda la ejecución (una línea JSON por escenario terminado).
+ *
+ * Con evidencia.conservar=true cada {@link InstantaneaEscenario} se anota en
+ * reportes/evidencia/&lt;ejecución&gt;/ejecucion_&lt;fork&gt;.jsonl (un archivo por fork, sin escrituras
+ * concurrentes entre procesos) y sus capturas no se borran al generar el reporte.
+ * {@link RenderizadorReportes} lee los manifiestos de la ejecución y vuelve a generar los reportes
+ * sin ejecutar en el dispositivo.
+ */
+public class ManifiestoEjecucion {
+
+  private static final Logger LOGGER = Logger.getLogger(ManifiestoEjecucion.class.getName());
+
+  static final String EVIDENCIA_DIR =
+          System.getProperty("user.dir") + File.separator + "reportes" + File.separator + "evidencia";
+  private static final String PREFIJO = "ejecucion";
+  private static final String EXTENSION = ".jsonl";
+
+  private static final boolean CONSERVAR =
+          Boolean.parseBoolean(System.getProperty("evidencia.conservar", "false"));
+  private static final Gson GSON = new Gson();
+
+  /**
+   * Línea del manifiesto: la instantánea con las capturas como rutas.
+   */
+  static class Registro {
+    String nombreEscenario;
+    List<String> pasos;
+    String linea;
+    String duracionFormato;
+    long duracionMs;
+    String pasoFallido;
+    String estadoFinal;
+    // Índice del paso (1, 2, 3...) → ruta; los manifiestos anteriores usaban el nombre del paso
+    Map<String, String> capturas;
+    Map<String, String> notas;
+
+    InstantaneaEscenario aInstantanea() {
+      Map<Integer, File> archivos = new LinkedHashMap<>();
+      if (capturas != null) {
+        capturas.forEach((clave, ruta) -> {
+          int indice = clave.matches("\\d+") ? Integer.parseInt(clave) : pasos == null ? 0 : pasos.indexOf(clave) + 1;
+          if (indice > 0) {
+            archivos.put(indice, new File(ruta));
+          }
+        });
+      }
+      // Sin carpeta: regenerar un reporte nunca borra la evidencia conservada
+      return new InstantaneaEscenario(nombreEscenario, pasos == null ? new ArrayList<>() : pasos, linea,
+              duracionFormato, duracionMs, pasoFallido, estadoFinal, archivos, null,
+              notas == null ? new LinkedHashMap<>() : notas);
+    }
+  }
+
+  private ManifiestoEjecucion() {}
+
+  public static boolean conservarEvidencia() {
+    return CONSERVAR;
+  }
+
+  public static File archivo() {
+    return Paths.get(EVIDENCIA_DIR, DirectoriosEvidencia.idEjecucion(),
+            PREFIJO + "_" + DirectoriosEvidencia.idFork() + EXTENSION).toFile();
+  }
+
+  /**
+   * Agrega el escenario al manifiesto de la ejecución. No hace nada si no se conserva la evidencia.
+   */
+  public static synchronized void registrar(InstantaneaEscenario escenario) {
+    if (!CONSERVAR) {
+      return;
+    }
+    Registro registro = new Registro();
+    registro.nombreEscenario = escenario.getNombreEscenario();
+    registro.pasos = escenario.getPasos();
+    registro.linea = escenario.getLinea();
+    registro.duracionFormato = escenario.getDuracionFormato();
+    registro.duracionMs = escenario.getDuracionMs();
+    registro.pasoFallido = escenario.getPasoFallido();
+    registro.estadoFinal = escenario.getEstadoFinal();
+    registro.notas = escenario.getNotas();
+    registro.capturas = new LinkedHashMap<>();
+    for (int indice = 1; indice <= escenario.getPasos().size(); indice++) {
+      File captura = escenario.capturaDe(indice);
+      if (captura != null) {
+        registro.capturas.put(String.valueOf(indice), captura.getAbsolutePath());
+      }
+    }
+    try {
+      Path manifiesto = archivo().toPath();
+      Files.createDirectories(manifiesto.getParent());
+      Files.write(manifiesto, (GSON.toJson(registro) + "\n").getBytes(StandardCharsets.UTF_8),
+              StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo escribir el manifiesto de la ejecución: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Lee un manifiesto, o todos los de un directorio de ejecución (uno por fork). Las líneas inválidas
+   * se omiten con una advertencia.
+   */
+  public static List<InstantaneaEscenario> leer(Path manifiesto) throws IOException {
+    List<InstantaneaEscenario> escenarios = new ArrayList<>();
+    if (Files.isDirectory(manifiesto)) {
+      for (File archivo : manifiestosDe(manifiesto.toFile())) {
+        escenarios.addAll(leer(archivo.toPath()));
+      }
+      return escenarios;
+    }
+    try (BufferedReader lector = Files.newBufferedReader(manifiesto, StandardCharsets.UTF_8)) {
+      String linea;
+      int numero = 0;
+      while ((linea = lector.readLine()) != null) {
+        numero++;
+        if (linea.trim().isEmpty()) {
+          continue;
+        }
+        try {
+          escenarios.add(GSON.fromJson(linea, Registro.class).aInstantanea());
+        } catch (RuntimeException e) {
+          LOGGER.warning("Línea " + numero + " del manifiesto inválida: " + e.getMessage());
+        }
+      }
+    }
+    return escenarios;
+  }
+
+  /**
+   * Directorio de la ejecución más reciente en reportes/evidencia, o null si no hay ninguno.
+   */
+  public static Path ultimo() {
+    File[] ejecuciones = new File(EVIDENCIA_DIR).listFiles(File::isDirectory);
+    Path ultimo = null;
+    long ultimaModificacion = Long.MIN_VALUE;
+    if (ejecuciones != null) {
+      for (File ejecucion : ejecuciones) {
+        for (File manifiesto : manifiestosDe(ejecucion)) {
+          if (manifiesto.lastModified() > ultimaModificacion) {
+            ultimaModificacion = manifiesto.lastModified();
+            ultimo = ejecucion.toPath();
+          }
+        }
+      }
+    }
+    return ultimo;
+  }
+
+  private static File[] manifiestosDe(File ejecucion) {
+    File[] manifiestos = ejecucion.listFiles((dir, nombre) -> nombre.startsWith(PREFIJO) && nombre.endsWith(EXTENSION));
+    if (manifiestos == null) {
+      return new File[0];
+    }
+    Arrays.sort(manifiestos);
+    return manifiestos;
+  }
+}
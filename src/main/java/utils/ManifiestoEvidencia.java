@@ -0,0 +1,139 @@
+package utils;
+
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Manifiesto de evidencias del escenario: índice del paso → nombre del paso, archivo, instante y hash.
+ *
+ * Las capturas se guardan con nombre direccionado por contenido (SHA-256 del PNG), de modo que dos
+ * capturas nunca colisionan aunque se tomen en el mismo segundo. {@link WordAppium} consulta el
+ * manifiesto por el índice del paso (su posición en el escenario, ver ScenarioContext#registrarPaso) en
+ * lugar de recorrer la carpeta Capturas/, así que un paso repetido no pisa la captura de otro. Las entradas viven en el
+ * {@link ScenarioContext} del hilo, así que cada escenario ve solo las suyas.
+ */
+public class ManifiestoEvidencia {
+
+  private static final Logger LOGGER = Logger.getLogger(ManifiestoEvidencia.class.getName());
+
+  private static final String ARCHIVO_MANIFIESTO = "manifiesto.jsonl";
+  private static final Gson GSON = new Gson();
+
+
+  public static class Entrada {
+    private final int indice;
+    private final String paso;
+    private final String archivo;
+    private final long timestamp;
+    private final String hash;
+
+    public Entrada(int indice, String paso, String archivo, long timestamp, String hash) {
+      this.indice = indice;
+      this.paso = paso;
+      this.archivo = archivo;
+      this.timestamp = timestamp;
+      this.hash = hash;
+    }
+
+    public int getIndice() {
+      return indice;
+    }
+
+    public String getPaso() {
+      return paso;
+    }
+
+    public String getArchivo() {
+      return archivo;
+    }
+
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    public String getHash() {
+      return hash;
+    }
+  }
+
+  private static Map<Integer, Entrada> mapa() {
+    return ScenarioContext.actual().manifiesto;
+  }
+
+  /**
+   * Registra la captura del paso y la agrega al manifiesto en disco.
+   */
+  public static Entrada registrar(int indice, String paso, File archivo, String hash) {
+    Entrada entrada = new Entrada(indice, paso, archivo.getPath(), System.currentTimeMillis(), hash);
+    mapa().put(indice, entrada);
+    escribir(entrada);
+    return entrada;
+  }
+
+  private static void escribir(Entrada entrada) {
+    try {
+      Path manifiesto = DirectoriosEvidencia.delEscenario().resolve(ARCHIVO_MANIFIESTO);
+      Files.write(manifiesto, (GSON.toJson(entrada) + "\n").getBytes(StandardCharsets.UTF_8),
+              StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo escribir el manifiesto de evidencias: " + e.getMessage());
+    }
+  }
+
+  public static File buscar(int indice) {
+    Entrada entrada = mapa().get(indice);
+    return entrada == null ? null : new File(entrada.getArchivo());
+  }
+
+  public static boolean estaVacio() {
+    return mapa().isEmpty();
+  }
+
+  public static List<Entrada> entradas() {
+    return Collections.unmodifiableList(new ArrayList<>(mapa().values()));
+  }
+
+  /**
+   * Archivos distintos referenciados por el manifiesto (varios pasos pueden compartir captura).
+   */
+  public static Collection<File> archivos() {
+    Set<File> archivos = new LinkedHashSet<>();
+    for (Entrada e : mapa().values()) {
+      archivos.add(new File(e.getArchivo()));
+    }
+    return archivos;
+  }
+
+  public static void reiniciar() {
+    mapa().clear();
+  }
+
+  public static String sha256(byte[] contenido) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(contenido);
+      StringBuilder hex = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 no disponible", e);
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package utils;
+
+import com.google.gson.Gson;
+import utils.metricas.Metricas;
+import utils.metricas.RegistroMetricas;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Fluidez de los gestos de scroll medida con `dumpsys gfxinfo &lt;paquete&gt; framestats`.
+ *
+ * Antes del gesto se reinician las estadísticas de la app (`dumpsys gfxinfo &lt;paquete&gt; reset`) y,
+ * tras jank.asentamiento.ms para que termine la inercia, se leen los fotogramas dibujados. El tiempo de
+ * cada fotograma es FrameCompleted - IntendedVsync; se descartan los marcados con Flags distinto de 0
+ * y es jank el que supera el periodo de refresco (estimado del menor intervalo entre vsyncs). Por gesto
+ * se calculan el % de jank y los percentiles 90 y 99, que van a la consola,
+ * target/telemetria/&lt;ejecución&gt;/jank_&lt;fork&gt;.jsonl, {@link Metricas} y, acumulados por gesto,
+ * a las notas del escenario. Los comandos viajan por {@link CanalAdb}.
+ */
+public class MedicionJank {
+
+  private static final Logger LOGGER = Logger.getLogger(MedicionJank.class.getName());
+
+  private static final boolean HABILITADA =
+          Boolean.parseBoolean(System.getProperty("jank.medicion.habilitada", "false"));
+  private static final long ASENTAMIENTO_MS =
+          Long.parseLong(System.getProperty("jank.asentamiento.ms", "500"));
+  private static final String PAQUETE = "com.clarocolombia.miclaro";
+  private static final String TELEMETRIA_DIR = "target" + File.separator + "telemetria";
+  private static final long TIMEOUT_ADB_MS = 10_000L;
+  private static final double PERIODO_POR_DEFECTO_MS = 1000.0 / 60;
+  private static final Gson GSON = new Gson();
+
+  /**
+   * Fotogramas de todas las repeticiones de un gesto en el escenario.
+   */
+  static class Acumulado {
+    private int gestos;
+    private int jank;
+    private double[] duraciones = new double[0];
+  }
+
+  private MedicionJank() {}
+
+  public static boolean habilitada() {
+    return HABILITADA;
+  }
+
+  /**
+   * Ejecuta el gesto y, con la medición habilitada, registra la fluidez de sus fotogramas.
+   */
+  public static void medir(String gesto, Runnable accion) {
+    if (!HABILITADA) {
+      accion.run();
+      return;
+    }
+    CanalAdb canal = CanalAdb.actual();
+    try {
+      canal.ejecutar("dumpsys gfxinfo " + PAQUETE + " reset > /dev/null", TIMEOUT_ADB_MS);
+    } catch (IOException e) {
+      LOGGER.fine("No se pudo reiniciar gfxinfo: " + e.getMessage());
+      accion.run();
+      return;
+    }
+    accion.run();
+    try {
+      Telemetria.pausa(ASENTAMIENTO_MS);
+      registrar(gesto, canal.ejecutar("dumpsys gfxinfo " + PAQUETE + " framestats", TIMEOUT_ADB_MS));
+    } catch (IOException e) {
+      LOGGER.fine("No se pudieron leer los fotogramas del gesto " + gesto + ": " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void registrar(String gesto, List<String> salida) {
+    List<long[]> fotogramas = leerFramestats(salida);
+    if (fotogramas.isEmpty()) {
+      System.out.println("🎞️ " + gesto + ": sin fotogramas dibujados");
+      return;
+    }
+    // Periodo de refresco: menor separación entre vsyncs consecutivos (60, 90 o 120 Hz)
+    double periodoMs = Double.MAX_VALUE;
+    for (int i = 1; i < fotogramas.size(); i++) {
+      double separacion = (fotogramas.get(i)[0] - fotogramas.get(i - 1)[0]) / 1e6;
+      if (separacion > 4) {
+        periodoMs = Math.min(periodoMs, separacion);
+      }
+    }
+    if (periodoMs == Double.MAX_VALUE) {
+      periodoMs = PERIODO_POR_DEFECTO_MS;
+    }
+
+    double[] duraciones = new double[fotogramas.size()];
+    int jank = 0;
+    for (int i = 0; i < duraciones.length; i++) {
+      duraciones[i] = (fotogramas.get(i)[1] - fotogramas.get(i)[0]) / 1e6;
+      if (duraciones[i] > periodoMs) {
+        jank++;
+      }
+      Metricas.fotograma(gesto, duraciones[i], duraciones[i] > periodoMs);
+    }
+    Arrays.sort(duraciones);
+    double p90 = RegistroMetricas.percentil(duraciones, 0.9);
+    double p99 = RegistroMetricas.percentil(duraciones, 0.99);
+    double porcentaje = 100.0 * jank / duraciones.length;
+    System.out.println(String.format(Locale.ROOT, "🎞️ %s: %d fotogramas, %.1f %% jank, p90 %.1f ms, p99 %.1f ms (refresco %.1f ms)",
+            gesto, duraciones.length, porcentaje, p90, p99, periodoMs));
+
+    ScenarioContext contexto = ScenarioContext.actual();
+    Map<String, Object> registro = new LinkedHashMap<>();
+    registro.put("ejecucion", DirectoriosEvidencia.idEjecucion());
+    registro.put("escenario", contexto.getNombreEscenario());
+    registro.put("paso", contexto.getUltimoPaso());
+    registro.put("gesto", gesto);
+    registro.put("fotogramas", duraciones.length);
+    registro.put("jank", jank);
+    registro.put("porcentajeJank", redondear(porcentaje));
+    registro.put("p90Ms", redondear(p90));
+    registro.put("p99Ms", redondear(p99));
+    registro.put("maxMs", redondear(duraciones[duraciones.length - 1]));
+    registro.put("periodoMs", redondear(periodoMs));
+    escribir(GSON.toJson(registro));
+    acumularNota(contexto, gesto, duraciones, jank);
+  }
+
+  /**
+   * Fotogramas válidos de la sección PROFILEDATA: {IntendedVsync, FrameCompleted} en nanosegundos.
+   */
+  static List<long[]> leerFramestats(List<String> salida) {
+    List<long[]> fotogramas = new ArrayList<>();
+    int flags = -1;
+    int vsync = -1;
+    int completado = -1;
+    boolean enDatos = false;
+    for (String linea : salida) {
+      String texto = linea.trim();
+      if (texto.equals("---PROFILEDATA---")) {
+        // Hay una sección por ventana; las columnas se releen en cada encabezado
+        enDatos = !enDatos;
+        continue;
+      }
+      if (!enDatos || texto.isEmpty()) {
+        continue;
+      }
+      String[] columnas = texto.split(",");
+      if (columnas[0].equals("Flags")) {
+        List<String> encabezado = Arrays.asList(columnas);
+        flags = encabezado.indexOf("Flags");
+        vsync = encabezado.indexOf("IntendedVsync");
+        completado = encabezado.indexOf("FrameCompleted");
+        continue;
+      }
+      if (vsync < 0 || completado < 0 || columnas.length <= Math.max(vsync, completado)) {
+        continue;
+      }
+      try {
+        if (Long.parseLong(columnas[flags]) != 0) {
+          continue;
+        }
+        long inicio = Long.parseLong(columnas[vsync]);
+        long fin = Long.parseLong(columnas[completado]);
+        if (inicio > 0 && fin > inicio) {
+          fotogramas.add(new long[]{inicio, fin});
+        }
+      } catch (NumberFormatException e) {
+        LOGGER.fine("Fila de framestats ignorada: " + texto);
+      }
+    }
+    fotogramas.sort((a, b) -> Long.compare(a[0], b[0]));
+    return fotogramas;
+  }
+
+  /**
+   * Nota del escenario por gesto con los fotogramas de todas sus repeticiones.
+   */
+  private static void acumularNota(ScenarioContext contexto, String gesto, double[] duraciones, int jank) {
+    Acumulado acumulado = contexto.jank.computeIfAbsent(gesto, k -> new Acumulado());
+    double[] todos = Arrays.copyOf(acumulado.duraciones, acumulado.duraciones.length + duraciones.length);
+    System.arraycopy(duraciones, 0, todos, acumulado.duraciones.length, duraciones.length);
+    Arrays.sort(todos);
+    acumulado.duraciones = todos;
+    acumulado.gestos++;
+    acumulado.jank += jank;
+
+    contexto.agregarNota("Jank " + gesto, String.format(Locale.ROOT,
+            "%d gesto(s), %d fotogramas · %.1f %% jank · p90 %.1f ms · p99 %.1f ms",
+            acumulado.gestos, todos.length, 100.0 * acumulado.jank / todos.length,
+            RegistroMetricas.percentil(todos, 0.9), RegistroMetricas.percentil(todos, 0.99)));
+  }
+
+  private static synchronized void escribir(String linea) {
+    Path archivo = Paths.get(TELEMETRIA_DIR, DirectoriosEvidencia.idEjecucion(),
+            "jank_" + DirectoriosEvidencia.idFork() + ".jsonl");
+    try {
+      Files.createDirectories(archivo.getParent());
+      Files.write(archivo, (linea + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+              StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo escribir la medición de jank: " + e.getMessage());
+    }
+  }
+
+  private static double redondear(double valor) {
+    return Math.round(valor * 10.0) / 10.0;
+  }
+}
@@ -0,0 +1,296 @@
+package utils;
+
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Muestreo de recursos de la app en el dispositivo mientras corre el escenario.
+ *
+ * Un hilo en segundo plano consulta cada recursos.muestreo.intervalo.ms, en una sola ida y vuelta por
+ * {@link CanalAdb}: PSS total y memoria gráfica (dumpsys meminfo), CPU del proceso (/proc/&lt;pid&gt;/stat
+ * contra /proc/stat, en % del dispositivo) y fotogramas dibujados y con jank (dumpsys gfxinfo). Cada
+ * muestra se etiqueta con el último paso registrado del escenario. Al terminar se resume por paso
+ * (PSS pico, CPU promedio, gráficos pico, fotogramas) como notas del reporte y en
+ * target/telemetria/&lt;ejecución&gt;/recursos_&lt;fork&gt;.jsonl.
+ */
+public class MuestreoRecursos {
+
+  private static final Logger LOGGER = Logger.getLogger(MuestreoRecursos.class.getName());
+
+  private static final boolean HABILITADO =
+          Boolean.parseBoolean(System.getProperty("recursos.muestreo.habilitado", "false"));
+  private static final long INTERVALO_MS =
+          Long.parseLong(System.getProperty("recursos.muestreo.intervalo.ms", "2000"));
+  private static final String PAQUETE = "com.clarocolombia.miclaro";
+  private static final String TELEMETRIA_DIR = "target" + File.separator + "telemetria";
+  private static final Gson GSON = new Gson();
+
+  private static final String COMANDO = "p=$(pidof " + PAQUETE + "); echo \"pid $p\"; head -1 /proc/stat; "
+          + "[ -n \"$p\" ] && cat /proc/$p/stat; "
+          + "dumpsys meminfo " + PAQUETE + " | grep -E 'TOTAL PSS:|^ *TOTAL |Graphics:'; "
+          + "dumpsys gfxinfo " + PAQUETE + " | grep -E 'Total frames rendered|Janky frames'";
+
+  /**
+   * Muestras y contadores acumulados de un escenario.
+   */
+  static class Sesion {
+    private final ScheduledExecutorService hilo;
+    private final List<Muestra> muestras = new ArrayList<>();
+    private String pid = "";
+    private long cpuProcesoAnterior = -1L;
+    private long cpuTotalAnterior = -1L;
+    private long fotogramasAnteriores = -1L;
+    private long jankAnteriores = -1L;
+
+    Sesion(ScheduledExecutorService hilo) {
+      this.hilo = hilo;
+    }
+  }
+
+  static class Muestra {
+    String paso;
+    long pssKb = -1L;
+    long graficosKb = -1L;
+    double cpu = Double.NaN;
+    long fotogramas;
+    long jank;
+  }
+
+  /** Resumen de las muestras de un paso. */
+  private static class Resumen {
+    private int muestras;
+    private long pssPicoKb = -1L;
+    private long graficosPicoKb = -1L;
+    private double sumaCpu;
+    private int muestrasCpu;
+    private long fotogramas;
+    private long jank;
+
+    private void agregar(Muestra muestra) {
+      muestras++;
+      pssPicoKb = Math.max(pssPicoKb, muestra.pssKb);
+      graficosPicoKb = Math.max(graficosPicoKb, muestra.graficosKb);
+      if (!Double.isNaN(muestra.cpu)) {
+        sumaCpu += muestra.cpu;
+        muestrasCpu++;
+      }
+      fotogramas += muestra.fotogramas;
+      jank += muestra.jank;
+    }
+
+    private String texto() {
+      StringBuilder texto = new StringBuilder();
+      texto.append("PSS pico ").append(pssPicoKb < 0 ? "-" : mb(pssPicoKb));
+      texto.append(" · CPU prom. ").append(muestrasCpu == 0 ? "-"
+              : String.format(Locale.ROOT, "%.1f %%", sumaCpu / muestrasCpu));
+      texto.append(" · gráficos pico ").append(graficosPicoKb < 0 ? "-" : mb(graficosPicoKb));
+      if (fotogramas > 0) {
+        texto.append(String.format(Locale.ROOT, " · %d fotogramas (%.1f %% jank)", fotogramas, 100.0 * jank / fotogramas));
+      }
+      return texto.append(" · ").append(muestras).append(" muestras").toString();
+    }
+
+    private Map<String, Object> json() {
+      Map<String, Object> json = new LinkedHashMap<>();
+      json.put("muestras", muestras);
+      json.put("pssPicoKb", pssPicoKb);
+      json.put("graficosPicoKb", graficosPicoKb);
+      json.put("cpuPromedio", muestrasCpu == 0 ? null : Math.round(sumaCpu / muestrasCpu * 10.0) / 10.0);
+      json.put("fotogramas", fotogramas);
+      json.put("jank", jank);
+      return json;
+    }
+  }
+
+  private MuestreoRecursos() {}
+
+  public static boolean habilitado() {
+    return HABILITADO;
+  }
+
+  /**
+   * Inicia el muestreo en segundo plano. Se llama desde el hilo del escenario para tomar su dispositivo.
+   */
+  public static void iniciar() {
+    ScenarioContext contexto = ScenarioContext.actual();
+    if (!HABILITADO || contexto.recursos != null) {
+      return;
+    }
+    CanalAdb canal = CanalAdb.actual();
+    Sesion sesion = new Sesion(Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "muestreo-recursos");
+      t.setDaemon(true);
+      return t;
+    }));
+    contexto.recursos = sesion;
+    sesion.hilo.scheduleWithFixedDelay(() -> muestrear(sesion, canal, contexto),
+            0L, INTERVALO_MS, TimeUnit.MILLISECONDS);
+  }
+
+  private static void muestrear(Sesion sesion, CanalAdb canal, ScenarioContext contexto) {
+    List<String> salida;
+    try {
+      salida = canal.ejecutar(COMANDO, Math.max(5_000L, INTERVALO_MS * 2));
+    } catch (IOException e) {
+      LOGGER.fine("Muestra de recursos omitida: " + e.getMessage());
+      return;
+    }
+    Muestra muestra = leer(sesion, salida, contexto.getUltimoPaso());
+    if (muestra == null) {
+      return; // La app no está en ejecución
+    }
+    synchronized (sesion) {
+      sesion.muestras.add(muestra);
+    }
+  }
+
+  /**
+   * Interpreta la salida de {@link #COMANDO} y actualiza los acumulados de CPU y fotogramas de la
+   * sesión; null si la app no está en ejecución.
+   */
+  static Muestra leer(Sesion sesion, List<String> salida, String paso) {
+    Muestra muestra = new Muestra();
+    muestra.paso = paso;
+    long cpuTotal = -1L;
+    long cpuProceso = -1L;
+    long fotogramas = -1L;
+    long jank = -1L;
+    for (String linea : salida) {
+      String texto = linea.trim();
+      if (texto.startsWith("pid")) {
+        String pid = texto.substring(3).trim();
+        if (!pid.equals(sesion.pid)) {
+          // La app arrancó o se reinició: los acumulados de CPU y fotogramas vuelven a cero
+          sesion.pid = pid;
+          sesion.cpuProcesoAnterior = -1L;
+          sesion.fotogramasAnteriores = -1L;
+          sesion.jankAnteriores = -1L;
+        }
+      } else if (texto.startsWith("cpu ")) {
+        cpuTotal = 0L;
+        for (String campo : texto.substring(4).trim().split("\\s+")) {
+          cpuTotal += Long.parseLong(campo);
+        }
+      } else if (texto.startsWith(sesion.pid + " (") && !sesion.pid.isEmpty()) {
+        // Campos 14 y 15 (utime, stime) contados desde el estado, tras el nombre entre paréntesis
+        String[] campos = texto.substring(texto.lastIndexOf(')') + 1).trim().split("\\s+");
+        cpuProceso = Long.parseLong(campos[11]) + Long.parseLong(campos[12]);
+      } else if (texto.contains("TOTAL PSS:")) {
+        muestra.pssKb = primerNumero(texto.substring(texto.indexOf("TOTAL PSS:") + "TOTAL PSS:".length()));
+      } else if (texto.startsWith("TOTAL ") && muestra.pssKb < 0) {
+        // Android 9 y anteriores: fila TOTAL de la tabla, la primera columna es el PSS
+        muestra.pssKb = primerNumero(texto.substring("TOTAL ".length()));
+      } else if (texto.startsWith("Graphics:")) {
+        muestra.graficosKb = primerNumero(texto.substring("Graphics:".length()));
+      } else if (texto.startsWith("Total frames rendered:")) {
+        fotogramas = primerNumero(texto.substring("Total frames rendered:".length()));
+      } else if (texto.startsWith("Janky frames:")) {
+        jank = primerNumero(texto.substring("Janky frames:".length()));
+      }
+    }
+
+    if (cpuProceso >= 0 && cpuTotal > 0) {
+      if (sesion.cpuProcesoAnterior >= 0 && cpuTotal > sesion.cpuTotalAnterior) {
+        muestra.cpu = 100.0 * (cpuProceso - sesion.cpuProcesoAnterior) / (cpuTotal - sesion.cpuTotalAnterior);
+      }
+      sesion.cpuProcesoAnterior = cpuProceso;
+      sesion.cpuTotalAnterior = cpuTotal;
+    }
+    if (fotogramas >= 0) {
+      // Un reinicio de gfxinfo (p. ej. por la medición de jank) deja el contador por debajo del anterior
+      muestra.fotogramas = sesion.fotogramasAnteriores < 0 ? 0
+              : fotogramas >= sesion.fotogramasAnteriores ? fotogramas - sesion.fotogramasAnteriores : fotogramas;
+      muestra.jank = sesion.jankAnteriores < 0 ? 0
+              : jank >= sesion.jankAnteriores ? jank - sesion.jankAnteriores : Math.max(0L, jank);
+      sesion.fotogramasAnteriores = fotogramas;
+      sesion.jankAnteriores = jank;
+    }
+    return muestra.pssKb < 0 && Double.isNaN(muestra.cpu) ? null : muestra;
+  }
+
+  /**
+   * Detiene el muestreo y deja el resumen por paso como notas del escenario.
+   */
+  public static void detener(String nombreEscenario) {
+    ScenarioContext contexto = ScenarioContext.actual();
+    Sesion sesion = contexto.recursos;
+    contexto.recursos = null;
+    if (sesion == null) {
+      return;
+    }
+    sesion.hilo.shutdownNow();
+    try {
+      sesion.hilo.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    Map<String, Resumen> porPaso = new LinkedHashMap<>();
+    Resumen total = new Resumen();
+    synchronized (sesion) {
+      for (Muestra muestra : sesion.muestras) {
+        String paso = muestra.paso == null || muestra.paso.isEmpty() ? "(antes del primer paso)" : muestra.paso;
+        porPaso.computeIfAbsent(paso, k -> new Resumen()).agregar(muestra);
+        total.agregar(muestra);
+      }
+    }
+    if (total.muestras == 0) {
+      return;
+    }
+    contexto.agregarNota("Recursos del escenario", total.texto());
+    for (Map.Entry<String, Resumen> paso : porPaso.entrySet()) {
+      contexto.agregarNota("Recursos · " + paso.getKey(), paso.getValue().texto());
+    }
+    System.out.println("📈 Recursos de la app: " + total.texto());
+
+    Map<String, Object> registro = new LinkedHashMap<>();
+    registro.put("ejecucion", DirectoriosEvidencia.idEjecucion());
+    registro.put("escenario", nombreEscenario);
+    registro.put("total", total.json());
+    Map<String, Object> pasos = new LinkedHashMap<>();
+    porPaso.forEach((paso, resumen) -> pasos.put(paso, resumen.json()));
+    registro.put("pasos", pasos);
+    escribir(GSON.toJson(registro));
+  }
+
+  private static synchronized void escribir(String linea) {
+    Path archivo = Paths.get(TELEMETRIA_DIR, DirectoriosEvidencia.idEjecucion(),
+            "recursos_" + DirectoriosEvidencia.idFork() + ".jsonl");
+    try {
+      Files.createDirectories(archivo.getParent());
+      Files.write(archivo, (linea + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+              StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      LOGGER.warning("No se pudieron escribir los recursos del escenario: " + e.getMessage());
+    }
+  }
+
+  private static long primerNumero(String texto) {
+    for (String campo : texto.trim().split("[\\s(]+")) {
+      if (campo.matches("\\d+")) {
+        return Long.parseLong(campo);
+      }
+    }
+    return -1L;
+  }
+
+  private static String mb(long kb) {
+    return String.format(Locale.ROOT, "%.1f MB", kb / 1024.0);
+  }
+}
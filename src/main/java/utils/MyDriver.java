@@ -1,19 +1,43 @@
 package utils;
 
+import io.appium.java_client.MobileCommand;
 import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.remote.AppiumCommandExecutor;
+import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.SystemEnvironmentVariables;
 import net.thucydides.core.webdriver.DriverSource;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.Command;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.Response;
+import utils.jfr.DriverCommandEvent;
 
 import java.net.URL;
+import java.util.Properties;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Driver de Appium que Serenity usa con webdriver.driver=provided (valor por defecto en serenity.properties).
+ * Las capabilities salen de las propiedades appium.* y cada comando pasa por {@link EjecutorMedido}.
+ */
 public class MyDriver implements DriverSource {
 
-  private static AndroidDriver driver;
+  private static final String PREFIJO_APPIUM = "appium.";
+  private static final int ESPERA_IMPLICITA_POR_DEFECTO_MS = 10_000;
 
+  /**
+   * Espera implícita configurada en Serenity (webdriver.timeouts.implicitlywait); quien la baje a 0 para
+   * sondear debe restaurarla a este valor.
+   */
+  public static long esperaImplicitaMs() {
+    return SystemEnvironmentVariables.createEnvironmentVariables()
+            .getPropertyAsInteger("webdriver.timeouts.implicitlywait", ESPERA_IMPLICITA_POR_DEFECTO_MS);
+  }
+
+  /** Driver del escenario que se ejecuta en el hilo actual. */
   public static AndroidDriver getDriver() {
-    return driver;
+    return ScenarioContext.actual().getDriver();
   }
 
   @Override
@@ -21,7 +45,7 @@ public class MyDriver implements DriverSource {
     try {
       DesiredCapabilities caps = new DesiredCapabilities();
 
-      // Capabilities base (alineadas a serenity.properties)
+      // Valores por defecto; las propiedades appium.* de serenity.properties los sobrescriben
       caps.setCapability("automationName", "UiAutomator2");
       caps.setCapability("platformName", "Android");
       caps.setCapability("app", System.getProperty("app", System.getProperty("user.dir") + "/src/test/resources/app/mi-claro.apk"));
@@ -35,10 +59,22 @@ public class MyDriver implements DriverSource {
       caps.setCapability("newCommandTimeout", 8000);
       // Si usas WebView y necesitas ChromeDriver:
       // caps.setCapability("chromedriverExecutable", "src/test/resources/webdriver/windows/chromedriver.exe");
+      aplicarPropiedadesAppium(caps);
+      if (System.getProperty("app") != null) {
+        caps.setCapability("app", System.getProperty("app"));
+      }
+
+      // En ejecución en paralelo cada hilo abre la sesión contra su propio dispositivo
+      PoolDispositivos.Dispositivo dispositivo = PoolDispositivos.actual();
+      if (dispositivo != null) {
+        caps.setCapability("udid", dispositivo.getUdid());
+        caps.setCapability("systemPort", dispositivo.getPuertoSistema());
+      }
 
-      URL hub = new URL("http://127.0.0.1:4723/wd/hub");
-      driver = new AndroidDriver(hub, caps);
-      driver.manage().timeouts().implicitlyWait(20, TimeUnit.SECONDS);
+      URL hub = new URL(PoolDispositivos.urlAppiumActual());
+      AndroidDriver driver = new AndroidDriver(new EjecutorMedido(hub), caps);
+      driver.manage().timeouts().implicitlyWait(esperaImplicitaMs(), TimeUnit.MILLISECONDS);
+      ScenarioContext.actual().setDriver(driver);
       return driver;
 
     } catch (Exception e) {
@@ -46,8 +82,62 @@ public class MyDriver implements DriverSource {
     }
   }
 
+  /**
+   * Copia las propiedades appium.* (sin el prefijo) como capabilities, resolviendo ${...} y
+   * convirtiendo booleanos y números.
+   */
+  private static void aplicarPropiedadesAppium(DesiredCapabilities caps) {
+    EnvironmentVariables variables = SystemEnvironmentVariables.createEnvironmentVariables();
+    Properties propiedades = variables.getPropertiesWithPrefix(PREFIJO_APPIUM);
+    for (String llave : propiedades.stringPropertyNames()) {
+      String nombre = llave.substring(PREFIJO_APPIUM.length());
+      String valor = variables.injectSystemPropertiesInto(propiedades.getProperty(llave).trim());
+      if (valor.equalsIgnoreCase("true") || valor.equalsIgnoreCase("false")) {
+        caps.setCapability(nombre, Boolean.parseBoolean(valor));
+      } else if (valor.matches("\\d{1,9}")) {
+        caps.setCapability(nombre, Integer.parseInt(valor));
+      } else {
+        caps.setCapability(nombre, valor);
+      }
+    }
+  }
+
   @Override
   public boolean takesScreenshots() {
     return true;
   }
+
+  /**
+   * Ejecutor de comandos de Appium que registra el tiempo de cada comando en la telemetría (también
+   * dentro de esperas y capturas) y emite un {@link DriverCommandEvent} por comando.
+   */
+  private static class EjecutorMedido extends AppiumCommandExecutor {
+
+    private EjecutorMedido(URL hub) {
+      super(MobileCommand.commandRepository, hub);
+    }
+
+    @Override
+    public Response execute(Command command) throws WebDriverException {
+      long inicioComando = System.nanoTime();
+      long inicio = Telemetria.inicio(Telemetria.Categoria.DRIVER);
+      DriverCommandEvent evento = new DriverCommandEvent();
+      evento.begin();
+      boolean exitoso = false;
+      try {
+        Response respuesta = super.execute(command);
+        exitoso = respuesta == null || respuesta.getStatus() == null || respuesta.getStatus() == 0;
+        return respuesta;
+      } finally {
+        Telemetria.finComando(command.getName(), inicioComando, inicio);
+        evento.end();
+        if (evento.shouldCommit()) {
+          evento.comando = command.getName();
+          evento.sesion = command.getSessionId() == null ? "" : command.getSessionId().toString();
+          evento.exitoso = exitoso;
+          evento.commit();
+        }
+      }
+    }
+  }
 }
\ No newline at end of file
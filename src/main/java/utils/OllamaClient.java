@@ -2,6 +2,8 @@ package utils;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import utils.jfr.OllamaCallEvent;
+import utils.metricas.Metricas;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -18,6 +20,7 @@ import java.nio.charset.StandardCharsets;
  * ✅ Timeout aumentado a 3 minutos
  * ✅ Manejo robusto de errores
  * ✅ Logs informativos
+ * ✅ Evento JFR por llamada (OllamaCallEvent)
  */
 public class OllamaClient {
 
@@ -54,6 +57,11 @@ public class OllamaClient {
      */
     public String ask(String prompt) throws IOException {
         long startTime = System.currentTimeMillis();
+        OllamaCallEvent evento = new OllamaCallEvent();
+        evento.begin();
+        int codigoHttp = 0;
+        int caracteresRespuesta = 0;
+        boolean exitosa = false;
 
         try {
             URL url = new URL(OLLAMA_URL);
@@ -82,6 +90,7 @@ public class OllamaClient {
 
             // Leer respuesta
             int responseCode = connection.getResponseCode();
+            codigoHttp = responseCode;
 
             if (responseCode != HttpURLConnection.HTTP_OK) {
                 throw new IOException("Ollama API error: HTTP " + responseCode);
@@ -99,6 +108,8 @@ public class OllamaClient {
             // Parsear respuesta JSON
             JsonObject jsonResponse = gson.fromJson(response.toString(), JsonObject.class);
             String answer = jsonResponse.get("response").getAsString();
+            caracteresRespuesta = answer.length();
+            exitosa = true;
 
             long duration = System.currentTimeMillis() - startTime;
             System.out.println("[OLLAMA-CLIENT] ✅ Respuesta recibida en " + (duration / 1000) + " segundos");
@@ -113,6 +124,17 @@ public class OllamaClient {
             long duration = System.currentTimeMillis() - startTime;
             System.err.println("[OLLAMA-CLIENT] ❌ Error después de " + (duration / 1000) + " segundos: " + e.getMessage());
             throw new IOException("Error comunicando con Ollama: " + e.getMessage(), e);
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.modelo = MODEL;
+                evento.caracteresPrompt = prompt.length();
+                evento.codigoHttp = codigoHttp;
+                evento.caracteresRespuesta = caracteresRespuesta;
+                evento.exitosa = exitosa;
+                evento.commit();
+            }
+            Metricas.ollama(exitosa, System.currentTimeMillis() - startTime);
         }
     }
 
@@ -0,0 +1,324 @@
+package utils;
+
+import com.google.gson.Gson;
+import utils.metricas.Metricas;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Consumo de red y batería de la app por escenario y por método de login.
+ *
+ * Al iniciar y al terminar cada escenario se toma una instantánea de los contadores del uid de la app:
+ * bytes recibidos y enviados (/proc/net/xt_qtaguid/stats o, desde Android 10, la sección "Uid stats" de
+ * `dumpsys netstats detail` tras forzar un sondeo) y energía estimada en mAh (filas pwi de
+ * `dumpsys batterystats --checkin`). Cada dispositivo tiene su propio hilo de medición por {@link CanalAdb}:
+ * el escenario espera su instantánea inicial, que queda en cola detrás de la final del escenario anterior
+ * del mismo dispositivo, y solo encola la final y la diferencia. Cada escenario va a la consola, a
+ * target/telemetria/&lt;ejecución&gt;/consumo_&lt;fork&gt;.jsonl y a {@link Metricas}; al terminar la suite se
+ * imprime el promedio por método de login (el de LoginOrquestado.Metodo que usó el escenario).
+ *
+ * Con el dispositivo cargando Android no acumula consumo de batería; consumo.bateria.desconectar=true
+ * simula la desconexión (`dumpsys battery unplug`) durante la suite y la restaura al final.
+ */
+public class PerfilConsumo {
+
+  private static final Logger LOGGER = Logger.getLogger(PerfilConsumo.class.getName());
+
+  private static final boolean HABILITADO =
+          Boolean.parseBoolean(System.getProperty("consumo.habilitado", "false"));
+  private static final boolean DESCONECTAR =
+          Boolean.parseBoolean(System.getProperty("consumo.bateria.desconectar", "false"));
+  private static final String PAQUETE = "com.clarocolombia.miclaro";
+  private static final String TELEMETRIA_DIR = "target" + File.separator + "telemetria";
+  private static final long TIMEOUT_ADB_MS = 20_000L;
+  private static final Gson GSON = new Gson();
+
+  private static final Map<String, ExecutorService> hilos = new ConcurrentHashMap<>();
+  private static final Map<String, String> uids = new ConcurrentHashMap<>();
+  private static final Set<String> desconectados = ConcurrentHashMap.newKeySet();
+  // método -> {escenarios, bytes recibidos, bytes enviados, mAh, escenarios con mAh}
+  private static final Map<String, double[]> porMetodo = new TreeMap<>();
+
+  /** Instantánea de los contadores del uid; -1 o NaN si no se pudo leer. */
+  static class Instantanea {
+    long recibidos = -1L;
+    long enviados = -1L;
+    double mah = Double.NaN;
+  }
+
+  /**
+   * Instantánea inicial de un escenario.
+   */
+  static class Medicion {
+    private final String udid;
+    private final Instantanea inicial;
+
+    private Medicion(String udid, Instantanea inicial) {
+      this.udid = udid;
+      this.inicial = inicial;
+    }
+  }
+
+  private PerfilConsumo() {}
+
+  public static boolean habilitado() {
+    return HABILITADO;
+  }
+
+  /**
+   * Toma la instantánea inicial del escenario del hilo actual en el hilo de su dispositivo y la espera.
+   */
+  public static void iniciar() {
+    if (!HABILITADO) {
+      return;
+    }
+    String udid = CanalAdb.udidActual();
+    CanalAdb canal = CanalAdb.de(udid);
+    FinSuite.registrar("consumo", PerfilConsumo::resumen);
+    ExecutorService hilo = hilo(udid);
+    if (DESCONECTAR && desconectados.add(udid)) {
+      hilo.submit(() -> ejecutar(canal, "dumpsys battery unplug"));
+    }
+    // Si quedara encolada, el login correría antes de la instantánea y su consumo no se contaría
+    try {
+      ScenarioContext.actual().consumo = new Medicion(udid, hilo.submit(() -> instantanea(canal, udid)).get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      LOGGER.warning("No se pudo tomar la instantánea inicial de consumo: " + e.getCause());
+    }
+  }
+
+  /**
+   * Encola la instantánea final y el cálculo de la diferencia; no espera a ninguna de las dos.
+   */
+  public static void finalizar(String escenario) {
+    ScenarioContext contexto = ScenarioContext.actual();
+    Medicion medicion = contexto.consumo;
+    contexto.consumo = null;
+    if (medicion == null) {
+      return;
+    }
+    String metodo = contexto.getDatos().getOrDefault(Metricas.DATO_METODO_LOGIN, "ninguno");
+    CanalAdb canal = CanalAdb.de(medicion.udid);
+    hilo(medicion.udid).submit(() ->
+            publicar(escenario, metodo, medicion.udid, medicion.inicial, instantanea(canal, medicion.udid)));
+  }
+
+  private static ExecutorService hilo(String udid) {
+    return hilos.computeIfAbsent(udid, k -> Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, "perfil-consumo-" + (k.isEmpty() ? "local" : k));
+      t.setDaemon(true);
+      return t;
+    }));
+  }
+
+  private static Instantanea instantanea(CanalAdb canal, String udid) {
+    Instantanea instantanea = new Instantanea();
+    // Un uid no encontrado no se guarda: la app puede instalarse después y el siguiente escenario reintenta
+    String uid = uids.get(udid);
+    if (uid == null) {
+      uid = consultarUid(canal);
+      if (uid.isEmpty()) {
+        return instantanea;
+      }
+      uids.put(udid, uid);
+    }
+    leerRedQtaguid(instantanea, ejecutar(canal, "cat /proc/net/xt_qtaguid/stats 2>/dev/null | grep ' " + uid + " '"), uid);
+    if (instantanea.recibidos < 0) {
+      ejecutar(canal, "dumpsys netstats --poll > /dev/null");
+      leerRedNetstats(instantanea, ejecutar(canal, "dumpsys netstats detail"), uid);
+    }
+    for (String linea : ejecutar(canal, "dumpsys batterystats --checkin | grep ',pwi,'")) {
+      // 9,<uid>,l,pwi,<categoría>,<mAh>,...
+      String[] campos = linea.trim().split(",");
+      if (campos.length > 5 && campos[1].equals(uid) && campos[3].equals("pwi")) {
+        try {
+          double mah = Double.parseDouble(campos[5]);
+          instantanea.mah = Double.isNaN(instantanea.mah) ? mah : instantanea.mah + mah;
+        } catch (NumberFormatException e) {
+          LOGGER.fine("Fila pwi ignorada: " + linea);
+        }
+      }
+    }
+    return instantanea;
+  }
+
+  private static String consultarUid(CanalAdb canal) {
+    for (String linea : ejecutar(canal, "dumpsys package " + PAQUETE + " | grep userId=")) {
+      String texto = linea.trim();
+      int inicio = texto.indexOf("userId=") + "userId=".length();
+      int fin = inicio;
+      while (fin < texto.length() && Character.isDigit(texto.charAt(fin))) {
+        fin++;
+      }
+      if (fin > inicio) {
+        return texto.substring(inicio, fin);
+      }
+    }
+    LOGGER.warning("No se encontró el uid de " + PAQUETE + "; no se mide el consumo");
+    return "";
+  }
+
+  /**
+   * xt_qtaguid (hasta Android 9): idx iface acct_tag_hex uid_tag_int cnt_set rx_bytes rx_packets tx_bytes ...
+   */
+  static void leerRedQtaguid(Instantanea instantanea, List<String> salida, String uid) {
+    for (String linea : salida) {
+      String[] campos = linea.trim().split("\\s+");
+      if (campos.length > 7 && campos[3].equals(uid) && campos[2].equals("0x0")) {
+        instantanea.recibidos = Math.max(0L, instantanea.recibidos) + Long.parseLong(campos[5]);
+        instantanea.enviados = Math.max(0L, instantanea.enviados) + Long.parseLong(campos[7]);
+      }
+    }
+  }
+
+  /**
+   * Sección "Uid stats" de netstats: por cada ident del uid sin tag, la suma de rb y tb de sus cubetas.
+   */
+  static void leerRedNetstats(Instantanea instantanea, List<String> salida, String uid) {
+    boolean enSeccion = false;
+    boolean delUid = false;
+    for (String linea : salida) {
+      String texto = linea.trim();
+      if (!linea.startsWith(" ") && texto.endsWith(":")) {
+        enSeccion = texto.equals("Uid stats:");
+        delUid = false;
+        continue;
+      }
+      if (!enSeccion) {
+        continue;
+      }
+      if (texto.startsWith("ident=")) {
+        delUid = texto.contains(" uid=" + uid + " ") && texto.contains("tag=0x0");
+      } else if (delUid && texto.startsWith("st=")) {
+        instantanea.recibidos = Math.max(0L, instantanea.recibidos) + valor(texto, "rb=");
+        instantanea.enviados = Math.max(0L, instantanea.enviados) + valor(texto, "tb=");
+      }
+    }
+  }
+
+  private static long valor(String texto, String clave) {
+    int inicio = texto.indexOf(clave);
+    if (inicio < 0) {
+      return 0L;
+    }
+    int fin = texto.indexOf(' ', inicio);
+    return Long.parseLong(texto.substring(inicio + clave.length(), fin < 0 ? texto.length() : fin));
+  }
+
+  private static void publicar(String escenario, String metodo, String udid, Instantanea inicio, Instantanea fin) {
+    long recibidos = inicio.recibidos < 0 || fin.recibidos < 0 ? -1L : Math.max(0L, fin.recibidos - inicio.recibidos);
+    long enviados = inicio.enviados < 0 || fin.enviados < 0 ? -1L : Math.max(0L, fin.enviados - inicio.enviados);
+    double mah = Double.isNaN(inicio.mah) || Double.isNaN(fin.mah) ? Double.NaN : Math.max(0, fin.mah - inicio.mah);
+    String dispositivo = udid.isEmpty() ? "local" : udid;
+
+    System.out.println(String.format(Locale.ROOT, "🔋 Consumo de %s (%s): red ↓ %s ↑ %s · batería %s", escenario, metodo,
+            kb(recibidos), kb(enviados), Double.isNaN(mah) ? "-" : String.format(Locale.ROOT, "%.3f mAh", mah)));
+    Metricas.consumo(dispositivo, metodo, recibidos, enviados, mah);
+    synchronized (porMetodo) {
+      double[] acumulado = porMetodo.computeIfAbsent(metodo, k -> new double[5]);
+      acumulado[0]++;
+      acumulado[1] += Math.max(0L, recibidos);
+      acumulado[2] += Math.max(0L, enviados);
+      if (!Double.isNaN(mah)) {
+        acumulado[3] += mah;
+        acumulado[4]++;
+      }
+    }
+
+    Map<String, Object> registro = new LinkedHashMap<>();
+    registro.put("ejecucion", DirectoriosEvidencia.idEjecucion());
+    registro.put("escenario", escenario);
+    registro.put("metodo", metodo);
+    registro.put("dispositivo", dispositivo);
+    registro.put("bytesRecibidos", recibidos < 0 ? null : recibidos);
+    registro.put("bytesEnviados", enviados < 0 ? null : enviados);
+    registro.put("bateriaMah", Double.isNaN(mah) ? null : Math.round(mah * 1000.0) / 1000.0);
+    escribir(GSON.toJson(registro));
+  }
+
+  /**
+   * Espera las mediciones encoladas e imprime el promedio por método de login.
+   */
+  private static void resumen() {
+    if (DESCONECTAR) {
+      for (String udid : desconectados) {
+        CanalAdb canal = CanalAdb.de(udid);
+        hilo(udid).submit(() -> ejecutar(canal, "dumpsys battery reset"));
+      }
+    }
+    hilos.values().forEach(ExecutorService::shutdown);
+    try {
+      for (ExecutorService hilo : hilos.values()) {
+        if (!hilo.awaitTermination(60, TimeUnit.SECONDS)) {
+          LOGGER.warning("Mediciones de consumo sin terminar al cerrar la suite");
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // Las últimas diferencias llegan después del volcado final de métricas
+    Metricas.escribir();
+
+    synchronized (porMetodo) {
+      if (porMetodo.isEmpty()) {
+        return;
+      }
+      System.out.println("══════════════════════════════════════════════════════");
+      System.out.println("🔋 Consumo promedio por escenario y método de login");
+      System.out.printf("   %-14s %5s %12s %12s %10s%n", "método", "n", "↓ KB", "↑ KB", "mAh");
+      for (Map.Entry<String, double[]> entrada : porMetodo.entrySet()) {
+        double[] a = entrada.getValue();
+        System.out.printf(Locale.ROOT, "   %-14s %5d %12.1f %12.1f %10s%n", entrada.getKey(), (long) a[0],
+                a[1] / a[0] / 1024, a[2] / a[0] / 1024,
+                a[4] == 0 ? "-" : String.format(Locale.ROOT, "%.3f", a[3] / a[4]));
+      }
+      System.out.println("══════════════════════════════════════════════════════");
+    }
+  }
+
+  private static List<String> ejecutar(CanalAdb canal, String comando) {
+    try {
+      return canal.ejecutar(comando, TIMEOUT_ADB_MS);
+    } catch (IOException e) {
+      LOGGER.fine("Comando de consumo fallido: " + e.getMessage());
+      return Collections.emptyList();
+    }
+  }
+
+  private static synchronized void escribir(String linea) {
+    Path archivo = Paths.get(TELEMETRIA_DIR, DirectoriosEvidencia.idEjecucion(),
+            "consumo_" + DirectoriosEvidencia.idFork() + ".jsonl");
+    try {
+      Files.createDirectories(archivo.getParent());
+      Files.write(archivo, (linea + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+              StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo escribir el consumo del escenario: " + e.getMessage());
+    }
+  }
+
+  private static String kb(long bytes) {
+    return bytes < 0 ? "-" : String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+  }
+}
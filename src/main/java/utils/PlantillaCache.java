@@ -0,0 +1,49 @@
+package utils;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.logging.Logger;
+
+/**
+ * Caché de la plantilla del informe (ruta/PlantillaInforme.docx).
+ *
+ * Los bytes del paquete se leen de disco una sola vez por JVM; cada reporte abre su propio
+ * {@link XWPFDocument} desde memoria, así que la plantilla original nunca se modifica ni se copia.
+ */
+public class PlantillaCache {
+
+  private static final Logger LOGGER = Logger.getLogger(PlantillaCache.class.getName());
+
+  static final String TEMPLATE_PATH = System.getProperty("user.dir") + File.separator + "ruta" + File.separator + "PlantillaInforme.docx";
+
+  private static volatile byte[] plantilla;
+
+  private PlantillaCache() {}
+
+  /**
+   * Devuelve un documento nuevo e independiente construido desde la plantilla en memoria.
+   */
+  public static XWPFDocument nuevoDocumento() throws IOException {
+    return new XWPFDocument(new ByteArrayInputStream(bytes()));
+  }
+
+  private static byte[] bytes() throws IOException {
+    byte[] actual = plantilla;
+    if (actual == null) {
+      synchronized (PlantillaCache.class) {
+        actual = plantilla;
+        if (actual == null) {
+          actual = Files.readAllBytes(Paths.get(TEMPLATE_PATH));
+          plantilla = actual;
+          LOGGER.info("Plantilla de reporte cargada en memoria (" + actual.length / 1024 + " KB).");
+        }
+      }
+    }
+    return actual;
+  }
+}
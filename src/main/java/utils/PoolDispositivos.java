@@ -0,0 +1,94 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dispositivos disponibles para la ejecución en paralelo dentro de la JVM.
+ *
+ * Se configuran con dispositivos=udid1@http://127.0.0.1:4723/wd/hub,udid2@http://127.0.0.1:4725/wd/hub
+ * (la URL de Appium es opcional). Cada hilo de trabajo de runners.DispositivosRunner se asigna un
+ * dispositivo y {@link MyDriver} abre la sesión contra él. Sin la propiedad hay un único dispositivo
+ * implícito y la ejecución es secuencial, como siempre.
+ */
+public class PoolDispositivos {
+
+  private static final String APPIUM_URL = System.getProperty("appium.hub", "http://127.0.0.1:4723/wd/hub");
+  private static final int PUERTO_SISTEMA_BASE =
+          Integer.parseInt(System.getProperty("dispositivos.puerto.sistema.base", "8200"));
+
+  private static final List<Dispositivo> CONFIGURADOS = leer(System.getProperty("dispositivos", ""));
+  private static final ThreadLocal<Dispositivo> ASIGNADO = new ThreadLocal<>();
+
+  public static class Dispositivo {
+    private final String udid;
+    private final String urlAppium;
+    private final int puertoSistema;
+
+    public Dispositivo(String udid, String urlAppium, int puertoSistema) {
+      this.udid = udid;
+      this.urlAppium = urlAppium;
+      this.puertoSistema = puertoSistema;
+    }
+
+    public String getUdid() {
+      return udid;
+    }
+
+    public String getUrlAppium() {
+      return urlAppium;
+    }
+
+    /** systemPort de UiAutomator2: debe ser distinto por dispositivo en un mismo servidor Appium. */
+    public int getPuertoSistema() {
+      return puertoSistema;
+    }
+
+    @Override
+    public String toString() {
+      return udid + "@" + urlAppium;
+    }
+  }
+
+  private PoolDispositivos() {}
+
+  private static List<Dispositivo> leer(String valor) {
+    List<Dispositivo> dispositivos = new ArrayList<>();
+    for (String entrada : valor.split(",")) {
+      String texto = entrada.trim();
+      if (texto.isEmpty()) {
+        continue;
+      }
+      int arroba = texto.indexOf('@');
+      String udid = arroba < 0 ? texto : texto.substring(0, arroba).trim();
+      String url = arroba < 0 ? APPIUM_URL : texto.substring(arroba + 1).trim();
+      dispositivos.add(new Dispositivo(udid, url, PUERTO_SISTEMA_BASE + dispositivos.size()));
+    }
+    return Collections.unmodifiableList(dispositivos);
+  }
+
+  public static List<Dispositivo> configurados() {
+    return CONFIGURADOS;
+  }
+
+  public static void asignar(Dispositivo dispositivo) {
+    ASIGNADO.set(dispositivo);
+  }
+
+  public static void liberar() {
+    ASIGNADO.remove();
+  }
+
+  /**
+   * Dispositivo del hilo actual; null en ejecución secuencial.
+   */
+  public static Dispositivo actual() {
+    return ASIGNADO.get();
+  }
+
+  public static String urlAppiumActual() {
+    Dispositivo dispositivo = actual();
+    return dispositivo == null ? APPIUM_URL : dispositivo.getUrlAppium();
+  }
+}
@@ -0,0 +1,73 @@
+package utils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Genera los reportes de una ejecución ya terminada, sin dispositivo.
+ *
+ * Lee el manifiesto escrito por {@link ManifiestoEjecucion} (ejecutar la suite con
+ * evidencia.conservar=true) y renderiza cada escenario en un pool fijo de hilos, en docx o en HTML
+ * según reporte.formato.
+ *
+ * Uso: gradle renderizarReportes [-Pmanifiesto=reportes/evidencia/&lt;ejecución&gt;] [-Philos=8]
+ * (-Pmanifiesto acepta el directorio de la ejecución o un archivo ejecucion_&lt;fork&gt;.jsonl)
+ */
+public class RenderizadorReportes {
+
+  public static void main(String[] args) throws Exception {
+    Path manifiesto = args.length > 0 && !args[0].isEmpty() ? Paths.get(args[0]) : ManifiestoEjecucion.ultimo();
+    int hilos = args.length > 1 && !args[1].isEmpty()
+            ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    if (manifiesto == null) {
+      System.out.println("❌ No se encontró ningún manifiesto en " + ManifiestoEjecucion.EVIDENCIA_DIR);
+      System.exit(1);
+    }
+
+    List<InstantaneaEscenario> escenarios = ManifiestoEjecucion.leer(manifiesto);
+    System.out.println("📋 " + escenarios.size() + " escenario(s) en " + manifiesto + " → " + hilos + " hilo(s)");
+
+    long inicio = System.nanoTime();
+    AtomicInteger errores = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(hilos, r -> {
+      Thread t = new Thread(r, "renderizador-reportes");
+      t.setDaemon(true);
+      return t;
+    });
+    try {
+      List<Future<?>> tareas = new ArrayList<>();
+      for (InstantaneaEscenario escenario : escenarios) {
+        tareas.add(pool.submit(() -> {
+          try {
+            boolean generado = HtmlReporte.activo()
+                    ? HtmlReporte.generarReporte(escenario) : WordAppium.generarReporte(escenario);
+            if (!generado) {
+              errores.incrementAndGet();
+              System.out.println("❌ No se pudo escribir el reporte de " + escenario.getNombreEscenario());
+            }
+          } catch (RuntimeException e) {
+            errores.incrementAndGet();
+            System.out.println("❌ Error en " + escenario.getNombreEscenario() + ": " + e.getMessage());
+          }
+        }));
+      }
+      for (Future<?> tarea : tareas) {
+        tarea.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    System.out.printf("✅ %d reporte(s) en %.1f s, %d error(es)%n",
+            escenarios.size() - errores.get(), (System.nanoTime() - inicio) / 1e9, errores.get());
+    if (errores.get() > 0) {
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,250 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xwpf.usermodel.BreakType;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Reporte consolidado de la suite (reporte.modo=SUITE).
+ *
+ * Cada escenario terminado se agrega como una sección al documento en curso. Para acotar la memoria,
+ * el documento se escribe a disco y se descarta cada reporte.suite.escenarios.por.parte escenarios
+ * (Suite_&lt;ejecución&gt;_&lt;fork&gt;_parte_N.docx, reservado con {@link WordAppium#reservarRuta}). De
+ * cada escenario solo se guarda su fila de resumen, que al final de la suite cada proceso deja en
+ * target/reporte-suite/&lt;ejecución&gt;/filas_&lt;fork&gt;.json. Con un bloqueo de archivo entre procesos,
+ * el proceso que termina reescribe Suite_&lt;ejecución&gt;_resumen.docx con las filas de todos los forks
+ * de la ejecución: el último en terminar deja el resumen completo, con la parte donde está cada escenario.
+ */
+public class ReporteSuite {
+
+  private static final Logger LOGGER = Logger.getLogger(ReporteSuite.class.getName());
+
+  private static final boolean ACTIVO =
+          "SUITE".equalsIgnoreCase(System.getProperty("reporte.modo", "ESCENARIO"));
+  private static final int ESCENARIOS_POR_PARTE =
+          Integer.parseInt(System.getProperty("reporte.suite.escenarios.por.parte", "25"));
+
+  private static final String FILAS_DIR = "target" + File.separator + "reporte-suite";
+  private static final Gson GSON = new Gson();
+
+  private static XWPFDocument parteActual;
+  private static String rutaParte;
+  private static int numeroParte = 0;
+  private static int escenariosEnParte = 0;
+  private static final List<Fila> resumen = new ArrayList<>();
+
+  private static class Fila {
+    private String escenario;
+    private String estado;
+    private String duracion;
+    private long duracionMs;
+    private String parte;
+
+    private Fila(String escenario, String estado, String duracion, long duracionMs, String parte) {
+      this.escenario = escenario;
+      this.estado = estado;
+      this.duracion = duracion;
+      this.duracionMs = duracionMs;
+      this.parte = parte;
+    }
+  }
+
+  private ReporteSuite() {}
+
+  public static boolean activo() {
+    return ACTIVO;
+  }
+
+  /**
+   * Agrega el escenario como sección del documento de la suite y libera sus capturas.
+   */
+  public static synchronized void agregarEscenario(InstantaneaEscenario escenario) {
+    FinSuite.registrar("reporte-suite", ReporteSuite::finalizar);
+    try {
+      if (parteActual == null) {
+        abrirParte();
+      } else {
+        parteActual.createParagraph().createRun().addBreak(BreakType.PAGE);
+      }
+
+      XWPFParagraph titulo = parteActual.createParagraph();
+      titulo.setSpacingBefore(200);
+      XWPFRun run = titulo.createRun();
+      run.setBold(true);
+      run.setFontSize(14);
+      run.setText(escenario.getNombreEscenario());
+
+      XWPFRun detalle = parteActual.createParagraph().createRun();
+      detalle.setText("Estado: " + escenario.getEstadoFinal() + " | Línea: " + escenario.getLinea()
+              + " | Duración: " + escenario.getDuracionFormato());
+      if (escenario.getPasoFallido() != null) {
+        detalle.addBreak();
+        detalle.setText("Paso fallido: " + escenario.getPasoFallido());
+      }
+
+      WordAppium.agregarNotas(parteActual, escenario);
+      WordAppium.agregarPasosYCapturas(parteActual, escenario);
+      resumen.add(new Fila(escenario.getNombreEscenario(), escenario.getEstadoFinal(),
+              escenario.getDuracionFormato(), escenario.getDuracionMs(), new File(rutaParte).getName()));
+
+      if (++escenariosEnParte >= ESCENARIOS_POR_PARTE) {
+        cerrarParte();
+      }
+    } catch (IOException | InvalidFormatException e) {
+      LOGGER.severe("Error agregando el escenario al reporte de suite: " + e.getMessage());
+    } finally {
+      escenario.eliminarCapturas();
+    }
+  }
+
+  private static void abrirParte() throws IOException {
+    numeroParte++;
+    escenariosEnParte = 0;
+    parteActual = PlantillaCache.nuevoDocumento();
+    new File(WordAppium.REPORTES_DIR).mkdirs();
+    rutaParte = WordAppium.reservarRuta("Suite_" + DirectoriosEvidencia.idEjecucion() + "_"
+            + DirectoriosEvidencia.idFork() + "_parte_" + numeroParte, ".docx");
+    Map<String, String> valores = new HashMap<>();
+    valores.put("ESCENARIO", "Suite " + DirectoriosEvidencia.idEjecucion() + " - "
+            + DirectoriosEvidencia.idFork() + " - parte " + numeroParte);
+    valores.put("FECHA", WordAppium.FORMATTER.format(LocalDateTime.now()));
+    valores.put("LINEA", "");
+    valores.put("DURACION", "");
+    SustitucionPlantilla.aplicar(parteActual, valores);
+  }
+
+  private static void cerrarParte() throws IOException {
+    if (parteActual == null) {
+      return;
+    }
+    try {
+      escribir(parteActual, Paths.get(rutaParte));
+    } finally {
+      parteActual.close();
+      parteActual = null;
+    }
+  }
+
+  /**
+   * Escribe la última parte y las filas de este proceso, y reescribe el resumen de la ejecución con
+   * las filas de todos los procesos. Se ejecuta una vez al final de la suite.
+   */
+  public static synchronized void finalizar() {
+    try {
+      cerrarParte();
+      if (resumen.isEmpty()) {
+        return;
+      }
+      Path directorio = Paths.get(FILAS_DIR, DirectoriosEvidencia.idEjecucion());
+      Files.createDirectories(directorio);
+      try (FileChannel canal = FileChannel.open(directorio.resolve(".bloqueo"),
+              StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+           FileLock ignored = canal.lock()) {
+        Files.write(directorio.resolve("filas_" + DirectoriosEvidencia.idFork() + ".json"),
+                GSON.toJson(resumen).getBytes(StandardCharsets.UTF_8));
+        List<Fila> todas = leerFilas(directorio);
+        escribirResumen(todas, Paths.get(WordAppium.REPORTES_DIR,
+                "Suite_" + DirectoriosEvidencia.idEjecucion() + "_resumen.docx"));
+      }
+    } catch (IOException e) {
+      LOGGER.severe("Error escribiendo el reporte de suite: " + e.getMessage());
+    }
+  }
+
+  private static List<Fila> leerFilas(Path directorio) throws IOException {
+    List<Fila> filas = new ArrayList<>();
+    List<Path> archivos = new ArrayList<>();
+    try (DirectoryStream<Path> encontrados = Files.newDirectoryStream(directorio, "filas_*.json")) {
+      encontrados.forEach(archivos::add);
+    }
+    archivos.sort(null);
+    for (Path archivo : archivos) {
+      List<Fila> delFork = GSON.fromJson(new String(Files.readAllBytes(archivo), StandardCharsets.UTF_8),
+              new TypeToken<List<Fila>>() {}.getType());
+      if (delFork != null) {
+        filas.addAll(delFork);
+      }
+    }
+    return filas;
+  }
+
+  private static void escribirResumen(List<Fila> filas, Path destino) throws IOException {
+    try (XWPFDocument doc = PlantillaCache.nuevoDocumento()) {
+      int aprobados = 0;
+      long totalMs = 0L;
+      for (Fila fila : filas) {
+        aprobados += "PASSED".equalsIgnoreCase(fila.estado) ? 1 : 0;
+        totalMs += fila.duracionMs;
+      }
+      Map<String, String> valores = new HashMap<>();
+      valores.put("ESCENARIO", "Resumen de la suite " + DirectoriosEvidencia.idEjecucion());
+      valores.put("FECHA", WordAppium.FORMATTER.format(LocalDateTime.now()));
+      valores.put("LINEA", "");
+      valores.put("DURACION", (totalMs / 1000) / 60 + " min " + (totalMs / 1000) % 60 + " seg");
+      SustitucionPlantilla.aplicar(doc, valores);
+
+      XWPFRun totales = doc.createParagraph().createRun();
+      totales.setBold(true);
+      totales.setText("Escenarios: " + filas.size() + " | Exitosos: " + aprobados
+              + " | Fallidos: " + (filas.size() - aprobados));
+
+      XWPFTable tabla = doc.createTable(1, 5);
+      XWPFTableRow encabezado = tabla.getRow(0);
+      String[] titulos = {"#", "Escenario", "Estado", "Duración", "Parte"};
+      for (int i = 0; i < titulos.length; i++) {
+        encabezado.getCell(i).setText(titulos[i]);
+      }
+      int n = 1;
+      for (Fila fila : filas) {
+        XWPFTableRow row = tabla.createRow();
+        row.getCell(0).setText(String.valueOf(n++));
+        row.getCell(1).setText(fila.escenario);
+        row.getCell(2).setText(fila.estado);
+        row.getCell(3).setText(fila.duracion);
+        row.getCell(4).setText(fila.parte);
+      }
+      new File(WordAppium.REPORTES_DIR).mkdirs();
+      escribir(doc, destino);
+    }
+  }
+
+  /**
+   * Escritura atómica: otro proceso que reescriba el resumen nunca deja un documento a medias.
+   */
+  private static void escribir(XWPFDocument doc, Path destino) throws IOException {
+    Path temporal = Files.createTempFile(destino.getParent(), "suite_", ".tmp");
+    try (FileOutputStream fos = new FileOutputStream(temporal.toFile())) {
+      doc.write(fos);
+    } catch (IOException e) {
+      Files.deleteIfExists(temporal);
+      throw e;
+    }
+    Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    System.out.println("📄 Reporte de suite guardado en: " + destino);
+  }
+}
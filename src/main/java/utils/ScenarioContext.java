@@ -0,0 +1,183 @@
+package utils;
+
+import io.appium.java_client.android.AndroidDriver;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado del escenario en ejecución, confinado al hilo que lo ejecuta.
+ *
+ * Reemplaza los campos estáticos que compartían ReportHooks, {@link EstadoPrueba},
+ * {@link EvidenciaUtils}, {@link SeleniumFunctions} y {@link MyDriver}: pasos, tiempos, contador,
+ * driver y datos clave/valor, además del estado de evidencia (manifiesto, deduplicación, video y
+ * buffer). Cada hilo ve solo su escenario, de modo que varios escenarios pueden correr en paralelo
+ * dentro de la misma JVM.
+ *
+ * El hook @Before llama a {@link #iniciar(String)}; el resto del código usa {@link #actual()}.
+ */
+public final class ScenarioContext {
+
+  private static final ThreadLocal<ScenarioContext> ACTUAL = ThreadLocal.withInitial(ScenarioContext::new);
+
+  // Datos guardados fuera de un escenario (p. ej. por el runner antes de la suite); todo escenario los hereda
+  private static final Map<String, String> DATOS_SUITE = new ConcurrentHashMap<>();
+
+  private final String nombreEscenario;
+  private final List<String> pasos = new ArrayList<>();
+  private volatile String ultimoPaso = "";
+  private String linea = "Sin datos";
+  private long inicio = System.currentTimeMillis();
+  private long fin = 0L;
+  private boolean fallo = false;
+  private String pasoFallido = "";
+  private int contadorPasos = 1;
+  private AndroidDriver driver;
+  private final Map<String, String> datos = new ConcurrentHashMap<>(DATOS_SUITE);
+  // Notas de rendimiento (latencia de login, recursos...) que el reporte muestra junto al estado
+  private final Map<String, String> notas = new LinkedHashMap<>();
+  // Filas de pasos terminados que utils.historial.HistorialEjecuciones inserta con el escenario
+  private final List<Object[]> pasosHistorial = new ArrayList<>();
+
+  // Estado de evidencia del escenario (ver ManifiestoEvidencia, CapturaDePantallaMovil, GrabacionPantalla, BufferCapturas)
+  // y mediciones de rendimiento en curso (MuestreoRecursos, MedicionJank, PerfilConsumo)
+  Path directorioEvidencia;
+  final Map<Integer, ManifiestoEvidencia.Entrada> manifiesto = new LinkedHashMap<>();
+  Long ultimoHash;
+  File ultimaCaptura;
+  String ultimoSha;
+  boolean grabando;
+  long inicioGrabacionNanos;
+  final List<GrabacionPantalla.Marca> marcasVideo = new ArrayList<>();
+  BufferCapturas.Sesion buffer;
+  MuestreoRecursos.Sesion recursos;
+  final Map<String, MedicionJank.Acumulado> jank = new LinkedHashMap<>();
+  PerfilConsumo.Medicion consumo;
+
+  private ScenarioContext() {
+    this("");
+  }
+
+  private ScenarioContext(String nombreEscenario) {
+    this.nombreEscenario = nombreEscenario;
+  }
+
+  public static ScenarioContext actual() {
+    return ACTUAL.get();
+  }
+
+  /**
+   * Abre un contexto nuevo para el escenario en el hilo actual. El driver se conserva: Serenity puede
+   * reutilizar la sesión de Appium entre escenarios del mismo hilo.
+   */
+  public static ScenarioContext iniciar(String nombreEscenario) {
+    ScenarioContext nuevo = new ScenarioContext(nombreEscenario);
+    nuevo.driver = ACTUAL.get().driver;
+    ACTUAL.set(nuevo);
+    return nuevo;
+  }
+
+  public static void guardarDatoSuite(String clave, String valor) {
+    DATOS_SUITE.put(clave, valor);
+    actual().datos.put(clave, valor);
+  }
+
+  public String getNombreEscenario() {
+    return nombreEscenario;
+  }
+
+  /**
+   * Agrega el paso y devuelve su índice (1, 2, 3...), con el que se registra su captura en {@link ManifiestoEvidencia}.
+   */
+  public int registrarPaso(String paso) {
+    pasos.add(paso);
+    ultimoPaso = paso;
+    return pasos.size();
+  }
+
+  public List<String> getPasos() {
+    return Collections.unmodifiableList(pasos);
+  }
+
+  public String getUltimoPaso() {
+    return ultimoPaso;
+  }
+
+  public String getLinea() {
+    return linea;
+  }
+
+  public void setLinea(String linea) {
+    this.linea = linea;
+  }
+
+  public long getInicio() {
+    return inicio;
+  }
+
+  public void setInicio(long inicio) {
+    this.inicio = inicio;
+  }
+
+  public long getFin() {
+    return fin;
+  }
+
+  public void setFin(long fin) {
+    this.fin = fin;
+  }
+
+  public boolean isFallo() {
+    return fallo;
+  }
+
+  public void setFallo(boolean fallo) {
+    this.fallo = fallo;
+  }
+
+  public String getPasoFallido() {
+    return pasoFallido;
+  }
+
+  public void setPasoFallido(String pasoFallido) {
+    this.pasoFallido = pasoFallido;
+  }
+
+  public int siguientePaso() {
+    return contadorPasos++;
+  }
+
+  public void reiniciarContador() {
+    contadorPasos = 1;
+  }
+
+  public AndroidDriver getDriver() {
+    return driver;
+  }
+
+  public void setDriver(AndroidDriver driver) {
+    this.driver = driver;
+  }
+
+  public Map<String, String> getDatos() {
+    return datos;
+  }
+
+  public synchronized void agregarNota(String clave, String valor) {
+    notas.put(clave, valor);
+  }
+
+  public synchronized Map<String, String> getNotas() {
+    return new LinkedHashMap<>(notas);
+  }
+
+  public List<Object[]> getPasosHistorial() {
+    return pasosHistorial;
+  }
+}
@@ -2,7 +2,6 @@ package utils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 import jxl.common.Logger;
@@ -16,32 +15,32 @@ public class SeleniumFunctions {
   private final Properties prop = new Properties();
   private final InputStream in = SeleniumFunctions.class.getResourceAsStream("/test.properties");
 
-  private static final Map<String, String> sceneryData = new HashMap<>();
-
   public String readProperties(String property) throws IOException {
     prop.load(in);
     return prop.getProperty(property);
   }
 
+  /** Datos clave/valor del escenario del hilo actual (ver {@link ScenarioContext}). */
+  private static Map<String, String> sceneryData() {
+    return ScenarioContext.actual().getDatos();
+  }
+
   public void retrieveTestData(String parameter) throws IOException {
     String environment = readProperties("Environment");
     try {
       saveInScenario(parameter, readProperties(parameter + "." + environment));
-      LOGGER.info("[ " + parameter + "." + environment + " ] --> " + sceneryData.get(parameter));
+      LOGGER.info("[ " + parameter + "." + environment + " ] --> " + sceneryData().get(parameter));
     } catch (IOException e) {
       e.printStackTrace();
     }
   }
 
   public void saveInScenario(String key, String text) {
-    if (!sceneryData.containsKey(key)) {
-      sceneryData.put(key, text);
-    } else {
-      sceneryData.replace(key, text);
-    }
+    sceneryData().put(key, text);
   }
 
   public String getScenarioData(String key) {
+    Map<String, String> sceneryData = sceneryData();
     boolean exist = sceneryData.containsKey(key);
     String text = "";
     if (exist) {
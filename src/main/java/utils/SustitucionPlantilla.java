@@ -0,0 +1,133 @@
+package utils;
+
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFFooter;
+import org.apache.poi.xwpf.usermodel.XWPFHeader;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Motor de sustitución de marcadores {{CLAVE}} de la plantilla en una sola pasada.
+ *
+ * Recorre cuerpo, tablas (anidadas), encabezados y pies una vez; en cada párrafo busca todos los
+ * marcadores con una sola expresión y los resuelve contra el mapa de valores. Word suele partir un
+ * marcador en varios runs ("{{ESCE" + "NARIO}}"), por eso la búsqueda se hace sobre el texto unido
+ * del párrafo y el reemplazo se reparte entre los runs afectados conservando su formato.
+ */
+public class SustitucionPlantilla {
+
+  private static final Pattern MARCADOR = Pattern.compile("\\{\\{([A-Za-z0-9_]+)}}");
+
+  private SustitucionPlantilla() {}
+
+  public static void aplicar(XWPFDocument doc, Map<String, String> valores) {
+    procesarCuerpo(doc, valores);
+    for (XWPFHeader header : doc.getHeaderList()) {
+      procesarCuerpo(header, valores);
+    }
+    for (XWPFFooter footer : doc.getFooterList()) {
+      procesarCuerpo(footer, valores);
+    }
+  }
+
+  private static void procesarCuerpo(IBody cuerpo, Map<String, String> valores) {
+    for (IBodyElement elemento : cuerpo.getBodyElements()) {
+      if (elemento instanceof XWPFParagraph) {
+        procesarParrafo((XWPFParagraph) elemento, valores);
+      } else if (elemento instanceof XWPFTable) {
+        for (XWPFTableRow row : ((XWPFTable) elemento).getRows()) {
+          for (XWPFTableCell cell : row.getTableCells()) {
+            procesarCuerpo(cell, valores);
+          }
+        }
+      }
+    }
+  }
+
+  private static void procesarParrafo(XWPFParagraph parrafo, Map<String, String> valores) {
+    List<XWPFRun> runs = parrafo.getRuns();
+    if (runs.isEmpty()) {
+      return;
+    }
+    List<String> textos = new ArrayList<>(runs.size());
+    for (XWPFRun run : runs) {
+      String texto = run.getText(0);
+      textos.add(texto == null ? "" : texto);
+    }
+    List<String> nuevos = sustituir(textos, valores);
+    for (int i = 0; i < runs.size(); i++) {
+      if (!nuevos.get(i).equals(textos.get(i))) {
+        runs.get(i).setText(nuevos.get(i), 0);
+      }
+    }
+  }
+
+  /**
+   * Sustituye los marcadores sobre el texto unido de los runs y devuelve el nuevo texto de cada run.
+   * Los marcadores sin valor en el mapa se dejan intactos.
+   */
+  static List<String> sustituir(List<String> textosRuns, Map<String, String> valores) {
+    StringBuilder unido = new StringBuilder();
+    int[] inicios = new int[textosRuns.size()];
+    for (int i = 0; i < textosRuns.size(); i++) {
+      inicios[i] = unido.length();
+      unido.append(textosRuns.get(i));
+    }
+    List<String> textos = new ArrayList<>(textosRuns);
+    if (unido.indexOf("{{") < 0) {
+      return textos;
+    }
+
+    List<int[]> coincidencias = new ArrayList<>();
+    List<String> reemplazos = new ArrayList<>();
+    Matcher matcher = MARCADOR.matcher(unido);
+    while (matcher.find()) {
+      String valor = valores.get(matcher.group(1));
+      if (valor != null) {
+        coincidencias.add(new int[] {matcher.start(), matcher.end()});
+        reemplazos.add(valor);
+      }
+    }
+
+    // De atrás hacia adelante: los cambios solo afectan texto posterior, los offsets previos siguen válidos
+    for (int m = coincidencias.size() - 1; m >= 0; m--) {
+      int inicio = coincidencias.get(m)[0];
+      int fin = coincidencias.get(m)[1];
+      int runInicio = runQueContiene(inicios, textosRuns, inicio);
+      int runFin = runQueContiene(inicios, textosRuns, fin - 1);
+
+      String prefijo = textos.get(runInicio).substring(0, inicio - inicios[runInicio]);
+      String sufijo = textos.get(runFin).substring(fin - inicios[runFin]);
+      if (runInicio == runFin) {
+        textos.set(runInicio, prefijo + reemplazos.get(m) + sufijo);
+      } else {
+        textos.set(runInicio, prefijo + reemplazos.get(m));
+        for (int k = runInicio + 1; k < runFin; k++) {
+          textos.set(k, "");
+        }
+        textos.set(runFin, sufijo);
+      }
+    }
+    return textos;
+  }
+
+  private static int runQueContiene(int[] inicios, List<String> textosRuns, int posicion) {
+    for (int i = inicios.length - 1; i >= 0; i--) {
+      if (inicios[i] <= posicion && !textosRuns.get(i).isEmpty()) {
+        return i;
+      }
+    }
+    return 0;
+  }
+}
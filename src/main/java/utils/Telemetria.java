@@ -0,0 +1,305 @@
+package utils;
+
+import com.google.gson.Gson;
+import utils.jfr.StepEvent;
+import utils.jfr.WaitEvent;
+import utils.historial.HistorialEjecuciones;
+import utils.metricas.Metricas;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Telemetría de tiempos por paso.
+ *
+ * Cada hilo acumula el tiempo gastado en esperas, comandos al driver y captura de evidencia
+ * ({@link Categoria}). listeners.TiemposStepListener abre un marco por cada paso de Serenity (paso de
+ * Cucumber, tarea o interacción de Screenplay) y al cerrarlo escribe una línea JSON con el inicio y fin
+ * en nanosegundos y el desglose por categoría en target/telemetria/&lt;ejecución&gt;/pasos_&lt;fork&gt;.jsonl.
+ *
+ * En el desglose del paso las mediciones no se anidan: un comando del driver dentro de una espera
+ * cuenta como espera. La métrica y el span de cada comando se registran igual ({@link #finComando}).
+ * Los mismos spans alimentan la traza de {@link TrazaEjecucion} y los histogramas de
+ * {@link Metricas}, y cada paso es además un {@link StepEvent} de Java Flight Recorder (gradle test -Pjfr).
+ * Los eventos JFR se emiten aunque telemetria.habilitada=false: la bandera solo apaga el JSONL, la traza
+ * y las métricas.
+ */
+public class Telemetria {
+
+  private static final Logger LOGGER = Logger.getLogger(Telemetria.class.getName());
+
+  private static final boolean HABILITADA =
+          Boolean.parseBoolean(System.getProperty("telemetria.habilitada", "true"));
+  private static final String TELEMETRIA_DIR = "target" + File.separator + "telemetria";
+  private static final Gson GSON = new Gson();
+
+  public enum Categoria { ESPERA, DRIVER, CAPTURA }
+
+  private static final ThreadLocal<Hilo> HILO = ThreadLocal.withInitial(Hilo::new);
+  private static BufferedWriter salida;
+
+  /** Acumulados del hilo y pila de pasos abiertos. */
+  private static class Hilo {
+    private final long[] acumulado = new long[Categoria.values().length];
+    private Categoria activa;
+    private final Deque<Marco> pasos = new ArrayDeque<>();
+    private String escenario = "";
+    private long inicioEscenario = -1L;
+  }
+
+  private static class Marco {
+    private final String nombre;
+    private final long inicioNanos;
+    private final long[] acumuladoInicial;
+    private final StepEvent evento = new StepEvent();
+
+    private Marco(String nombre, long inicioNanos, long[] acumuladoInicial) {
+      this.nombre = nombre;
+      this.inicioNanos = inicioNanos;
+      this.acumuladoInicial = acumuladoInicial;
+      evento.begin();
+    }
+  }
+
+  private Telemetria() {}
+
+  public static boolean habilitada() {
+    return HABILITADA;
+  }
+
+  /**
+   * Inicia una medición. Devuelve el instante de inicio, o -1 si ya hay otra medición en curso en el
+   * hilo (en ese caso {@link #fin} no suma nada).
+   */
+  public static long inicio(Categoria categoria) {
+    if (!HABILITADA) {
+      return -1L;
+    }
+    Hilo hilo = HILO.get();
+    if (hilo.activa != null) {
+      return -1L;
+    }
+    hilo.activa = categoria;
+    return System.nanoTime();
+  }
+
+  public static void fin(Categoria categoria, long inicioNanos) {
+    fin(categoria, inicioNanos, categoria.name().toLowerCase());
+  }
+
+  /**
+   * Igual que {@link #fin(Categoria, long)}, con el nombre del span en la traza de ejecución
+   * (p. ej. el comando de Appium).
+   */
+  public static void fin(Categoria categoria, long inicioNanos, String nombre) {
+    if (inicioNanos < 0) {
+      return;
+    }
+    long finNanos = System.nanoTime();
+    Hilo hilo = HILO.get();
+    hilo.acumulado[categoria.ordinal()] += finNanos - inicioNanos;
+    hilo.activa = null;
+    switch (categoria) {
+      case ESPERA:
+        Metricas.espera(finNanos - inicioNanos);
+        break;
+      case DRIVER:
+        Metricas.comandoAppium(nombre, finNanos - inicioNanos);
+        break;
+      default:
+        Metricas.captura(finNanos - inicioNanos);
+    }
+    TrazaEjecucion.span(nombre, categoria.name().toLowerCase(), inicioNanos, finNanos, null);
+  }
+
+  /**
+   * Cierra la medición de un comando del driver. inicioComando es el instante en que empezó el comando
+   * e inicioAcumulado lo que devolvió {@link #inicio} para DRIVER: el comando solo suma al desglose del
+   * paso si no había otra medición en curso, pero la métrica y el span de la traza se registran siempre,
+   * también para los comandos que ocurren dentro de una espera o de una captura.
+   */
+  public static void finComando(String nombre, long inicioComando, long inicioAcumulado) {
+    if (!HABILITADA) {
+      return;
+    }
+    long finNanos = System.nanoTime();
+    if (inicioAcumulado >= 0) {
+      Hilo hilo = HILO.get();
+      hilo.acumulado[Categoria.DRIVER.ordinal()] += finNanos - inicioAcumulado;
+      hilo.activa = null;
+    }
+    Metricas.comandoAppium(nombre, finNanos - inicioComando);
+    TrazaEjecucion.span(nombre, Categoria.DRIVER.name().toLowerCase(), inicioComando, finNanos, null);
+  }
+
+  /**
+   * Thread.sleep medido como espera.
+   */
+  public static void pausa(long milisegundos) throws InterruptedException {
+    long inicio = inicio(Categoria.ESPERA);
+    WaitEvent evento = new WaitEvent();
+    evento.begin();
+    String resultado = "INTERRUMPIDA";
+    try {
+      Thread.sleep(milisegundos);
+      resultado = "PAUSA";
+    } finally {
+      fin(Categoria.ESPERA, inicio, "sleep " + milisegundos + " ms");
+      evento.end();
+      if (evento.shouldCommit()) {
+        evento.objetivo = "pausa";
+        evento.timeout = milisegundos;
+        evento.resultado = resultado;
+        evento.commit();
+      }
+    }
+  }
+
+  public static void iniciarEscenario(String escenario) {
+    Hilo hilo = HILO.get();
+    hilo.escenario = escenario;
+    hilo.inicioEscenario = System.nanoTime();
+    hilo.pasos.clear();
+  }
+
+  public static void iniciarPaso(String nombre) {
+    Hilo hilo = HILO.get();
+    hilo.pasos.push(new Marco(nombre, System.nanoTime(), hilo.acumulado.clone()));
+  }
+
+  /**
+   * Cierra el paso más interno: emite su {@link StepEvent} y, con la telemetría habilitada, escribe su registro.
+   */
+  public static void finalizarPaso(String resultado) {
+    Hilo hilo = HILO.get();
+    Marco marco = hilo.pasos.poll();
+    if (marco == null) {
+      return;
+    }
+    long finNanos = System.nanoTime();
+    marco.evento.end();
+    if (marco.evento.shouldCommit()) {
+      PoolDispositivos.Dispositivo dispositivo = PoolDispositivos.actual();
+      marco.evento.paso = marco.nombre;
+      marco.evento.escenario = hilo.escenario;
+      marco.evento.nivel = hilo.pasos.size();
+      marco.evento.resultado = resultado;
+      marco.evento.dispositivo = dispositivo == null ? "" : dispositivo.getUdid();
+      marco.evento.commit();
+    }
+    if (!HABILITADA) {
+      return;
+    }
+    long duracion = finNanos - marco.inicioNanos;
+    long espera = hilo.acumulado[Categoria.ESPERA.ordinal()] - marco.acumuladoInicial[Categoria.ESPERA.ordinal()];
+    long driver = hilo.acumulado[Categoria.DRIVER.ordinal()] - marco.acumuladoInicial[Categoria.DRIVER.ordinal()];
+    long captura = hilo.acumulado[Categoria.CAPTURA.ordinal()] - marco.acumuladoInicial[Categoria.CAPTURA.ordinal()];
+
+    Map<String, Object> registro = new LinkedHashMap<>();
+    registro.put("ejecucion", DirectoriosEvidencia.idEjecucion());
+    registro.put("fork", DirectoriosEvidencia.idFork());
+    registro.put("hilo", Thread.currentThread().getName());
+    registro.put("escenario", hilo.escenario);
+    registro.put("paso", marco.nombre);
+    registro.put("nivel", hilo.pasos.size());
+    registro.put("padre", hilo.pasos.isEmpty() ? null : hilo.pasos.peek().nombre);
+    registro.put("resultado", resultado);
+    registro.put("inicioNs", marco.inicioNanos);
+    registro.put("finNs", finNanos);
+    registro.put("duracionMs", ms(duracion));
+    registro.put("esperaMs", ms(espera));
+    registro.put("driverMs", ms(driver));
+    registro.put("capturaMs", ms(captura));
+    registro.put("otrosMs", ms(Math.max(0L, duracion - espera - driver - captura)));
+    escribir(GSON.toJson(registro));
+    Metricas.paso(hilo.pasos.isEmpty(), duracion);
+    HistorialEjecuciones.paso(hilo.escenario, marco.nombre, hilo.pasos.size(), resultado,
+            ms(duracion), ms(espera), ms(driver));
+
+    Map<String, Object> args = new LinkedHashMap<>();
+    args.put("resultado", resultado);
+    args.put("esperaMs", ms(espera));
+    args.put("driverMs", ms(driver));
+    args.put("capturaMs", ms(captura));
+    TrazaEjecucion.span(marco.nombre, hilo.pasos.isEmpty() ? "paso" : "tarea", marco.inicioNanos, finNanos, args);
+  }
+
+  /**
+   * Cierra los pasos que quedaron abiertos (p. ej. por una excepción). El @After de ReportHooks lo
+   * llama antes de cerrar el lote del historial para que esas filas queden en su escenario.
+   */
+  public static void cerrarPasosAbiertos() {
+    Hilo hilo = HILO.get();
+    while (!hilo.pasos.isEmpty()) {
+      finalizarPaso("INTERRUMPIDO");
+    }
+  }
+
+  /**
+   * Cierra los pasos abiertos, traza el escenario y vacía el archivo.
+   */
+  public static void finalizarEscenario() {
+    Hilo hilo = HILO.get();
+    cerrarPasosAbiertos();
+    // testFailed y testFinished llegan ambos: el escenario se traza una sola vez
+    if (hilo.inicioEscenario >= 0) {
+      TrazaEjecucion.escenario(hilo.escenario, hilo.inicioEscenario, System.nanoTime());
+      hilo.inicioEscenario = -1L;
+      TrazaEjecucion.vaciar();
+    }
+    vaciar();
+  }
+
+  private static double ms(long nanos) {
+    return Math.round(nanos / 10_000.0) / 100.0;
+  }
+
+  private static synchronized void escribir(String linea) {
+    try {
+      if (salida == null) {
+        Path archivo = Paths.get(TELEMETRIA_DIR, DirectoriosEvidencia.idEjecucion(),
+                "pasos_" + DirectoriosEvidencia.idFork() + ".jsonl");
+        Files.createDirectories(archivo.getParent());
+        salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        FinSuite.registrar("telemetria", Telemetria::cerrar);
+      }
+      salida.write(linea);
+      salida.newLine();
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo escribir la telemetría: " + e.getMessage());
+    }
+  }
+
+  private static synchronized void vaciar() {
+    try {
+      if (salida != null) {
+        salida.flush();
+      }
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo vaciar la telemetría: " + e.getMessage());
+    }
+  }
+
+  private static synchronized void cerrar() {
+    try {
+      if (salida != null) {
+        salida.close();
+        salida = null;
+      }
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo cerrar la telemetría: " + e.getMessage());
+    }
+  }
+}
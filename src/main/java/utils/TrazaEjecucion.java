@@ -0,0 +1,208 @@
+package utils;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Exportador de la ejecución en formato trace-event de Chrome (chrome://tracing, ui.perfetto.dev).
+ *
+ * Cada span es un evento "X" (completo) con inicio y duración en microsegundos: escenario, paso de
+ * Cucumber, tarea e interacción de Screenplay (anidados por tiempo) y, dentro de ellos, cada comando
+ * de Appium y cada espera. Cada dispositivo es un proceso del visor y cada hilo una pista, de modo que
+ * las esperas (sleep incluidos) y los huecos entre comandos quedan a la vista. El tiempo ocioso del
+ * hilo entre un escenario y el siguiente se marca como span "inactivo", y al cerrar se etiqueta el
+ * dispositivo que terminó último (el que fija la duración de la suite) con su tiempo en escenarios y
+ * el margen sobre el siguiente en terminar. No es una ruta crítica: los dispositivos no dependen
+ * entre sí, así que no hay dependencias entre spans de las que derivarla. Los spans de comandos de
+ * Appium requieren webdriver.driver=provided (utils.MyDriver).
+ *
+ * Salida: target/telemetria/&lt;ejecución&gt;/traza_&lt;fork&gt;.json con traza.habilitada=true. Los spans los
+ * emite {@link Telemetria}, así que requiere telemetria.habilitada.
+ */
+public class TrazaEjecucion {
+
+  private static final Logger LOGGER = Logger.getLogger(TrazaEjecucion.class.getName());
+
+  private static final boolean HABILITADA =
+          Boolean.parseBoolean(System.getProperty("traza.habilitada", "false"));
+  private static final String TELEMETRIA_DIR = "target" + File.separator + "telemetria";
+  private static final Gson GSON = new Gson();
+
+  // Base de tiempo común entre forks: nanoTime anclado a la hora del sistema al cargar la clase
+  private static final long ORIGEN_EPOCH_US = System.currentTimeMillis() * 1000L;
+  private static final long ORIGEN_NANOS = System.nanoTime();
+
+  private static final Map<String, Integer> procesos = new ConcurrentHashMap<>();
+  private static final Set<Long> hilosNombrados = ConcurrentHashMap.newKeySet();
+  private static final Map<Long, Long> finUltimoEscenario = new ConcurrentHashMap<>();
+  private static final Map<Integer, long[]> ocupacionPorProceso = new ConcurrentHashMap<>();
+  private static BufferedWriter salida;
+  private static boolean primerEvento = true;
+
+  private TrazaEjecucion() {}
+
+  public static boolean habilitada() {
+    return HABILITADA;
+  }
+
+  /**
+   * Registra un span terminado en el hilo actual.
+   */
+  public static void span(String nombre, String categoria, long inicioNanos, long finNanos, Map<String, Object> args) {
+    if (!HABILITADA) {
+      return;
+    }
+    int pid = proceso();
+    long tid = Thread.currentThread().getId();
+    if (hilosNombrados.add(tid)) {
+      metadato("thread_name", pid, tid, Thread.currentThread().getName());
+    }
+    Map<String, Object> evento = new LinkedHashMap<>();
+    evento.put("name", nombre);
+    evento.put("cat", categoria);
+    evento.put("ph", "X");
+    evento.put("ts", micros(inicioNanos));
+    evento.put("dur", Math.max(1L, (finNanos - inicioNanos) / 1000L));
+    evento.put("pid", pid);
+    evento.put("tid", tid);
+    if (args != null && !args.isEmpty()) {
+      evento.put("args", args);
+    }
+    escribir(GSON.toJson(evento));
+  }
+
+  /**
+   * Registra un escenario terminado y el hueco desde el escenario anterior del mismo hilo.
+   */
+  public static void escenario(String nombre, long inicioNanos, long finNanos) {
+    if (!HABILITADA) {
+      return;
+    }
+    long tid = Thread.currentThread().getId();
+    Long finAnterior = finUltimoEscenario.put(tid, finNanos);
+    if (finAnterior != null && inicioNanos > finAnterior) {
+      span("inactivo", "hueco", finAnterior, inicioNanos, null);
+    }
+    span(nombre, "escenario", inicioNanos, finNanos, null);
+
+    // {ocupado, fin} por dispositivo para marcar al cerrar el último en terminar
+    long[] ocupacion = ocupacionPorProceso.computeIfAbsent(proceso(), k -> new long[2]);
+    synchronized (ocupacion) {
+      ocupacion[0] += finNanos - inicioNanos;
+      ocupacion[1] = Math.max(ocupacion[1], finNanos);
+    }
+  }
+
+  private static long micros(long nanos) {
+    return ORIGEN_EPOCH_US + (nanos - ORIGEN_NANOS) / 1000L;
+  }
+
+  /** Un proceso del visor por dispositivo (o uno por fork si no hay pool de dispositivos). */
+  private static int proceso() {
+    PoolDispositivos.Dispositivo dispositivo = PoolDispositivos.actual();
+    String nombre = dispositivo == null ? DirectoriosEvidencia.idFork() : dispositivo.getUdid();
+    Integer pid = procesos.get(nombre);
+    if (pid == null) {
+      synchronized (procesos) {
+        pid = procesos.get(nombre);
+        if (pid == null) {
+          pid = procesos.size() + 1;
+          procesos.put(nombre, pid);
+          metadato("process_name", pid, 0L, "Dispositivo " + nombre);
+        }
+      }
+    }
+    return pid;
+  }
+
+  private static void metadato(String tipo, int pid, long tid, String nombre) {
+    Map<String, Object> args = new HashMap<>();
+    args.put("process_labels".equals(tipo) ? "labels" : "name", nombre);
+    Map<String, Object> evento = new LinkedHashMap<>();
+    evento.put("name", tipo);
+    evento.put("ph", "M");
+    evento.put("pid", pid);
+    evento.put("tid", tid);
+    evento.put("args", args);
+    escribir(GSON.toJson(evento));
+  }
+
+  private static synchronized void escribir(String evento) {
+    try {
+      if (salida == null) {
+        Path archivo = Paths.get(TELEMETRIA_DIR, DirectoriosEvidencia.idEjecucion(),
+                "traza_" + DirectoriosEvidencia.idFork() + ".json");
+        Files.createDirectories(archivo.getParent());
+        salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8);
+        salida.write("[\n");
+        FinSuite.registrar("traza", TrazaEjecucion::cerrar);
+        System.out.println("🧭 Traza de ejecución en: " + archivo.toAbsolutePath());
+      }
+      if (!primerEvento) {
+        salida.write(",\n");
+      }
+      primerEvento = false;
+      salida.write(evento);
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo escribir la traza de ejecución: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Vacía lo escrito hasta ahora; el visor acepta el arreglo sin cerrar si la ejecución se corta.
+   */
+  public static synchronized void vaciar() {
+    try {
+      if (salida != null) {
+        salida.flush();
+      }
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo vaciar la traza de ejecución: " + e.getMessage());
+    }
+  }
+
+  private static synchronized void cerrar() {
+    int ultimo = -1;
+    long finUltimo = Long.MIN_VALUE;
+    long finPenultimo = Long.MIN_VALUE;
+    for (Map.Entry<Integer, long[]> entrada : ocupacionPorProceso.entrySet()) {
+      long fin = entrada.getValue()[1];
+      if (fin > finUltimo) {
+        finPenultimo = finUltimo;
+        finUltimo = fin;
+        ultimo = entrada.getKey();
+      } else if (fin > finPenultimo) {
+        finPenultimo = fin;
+      }
+    }
+    if (ultimo > 0) {
+      long ocupado = ocupacionPorProceso.get(ultimo)[0];
+      String margen = finPenultimo == Long.MIN_VALUE
+              ? "" : ", " + (finUltimo - finPenultimo) / 1_000_000L + " ms después del siguiente";
+      metadato("process_labels", ultimo, 0L,
+              "terminó último (" + ocupado / 1_000_000L + " ms en escenarios" + margen + ")");
+    }
+    try {
+      if (salida != null) {
+        salida.write("\n]\n");
+        salida.close();
+        salida = null;
+      }
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo cerrar la traza de ejecución: " + e.getMessage());
+    }
+  }
+}
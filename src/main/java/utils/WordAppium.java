@@ -5,11 +5,12 @@ import org.apache.poi.util.Units;
 import org.apache.poi.xwpf.usermodel.*;
 
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.ResourceBundle;
 import java.util.logging.Logger;
@@ -18,11 +19,13 @@ public class WordAppium {
 
     private static final Logger LOGGER = Logger.getLogger(WordAppium.class.getName());
 
-    private static final String TEMPLATE_PATH = System.getProperty("user.dir") + File.separator + "ruta" + File.separator + "PlantillaInforme.docx";
-    private static final String CAPTURAS_DIR = "Capturas/";
-    private static final String REPORTES_DIR = System.getProperty("user.dir") + File.separator + "reportes";
+    static final String REPORTES_DIR = System.getProperty("user.dir") + File.separator + "reportes";
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    // Tamaño con el que se muestra cada captura en el reporte (puntos)
+    private static final int IMAGEN_ANCHO_PT = 150;
+    private static final int IMAGEN_ALTO_PT = 270;
+
+    static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
 
     private static final ResourceBundle messages = ResourceBundle.getBundle("messages");
     private static final Properties STEP_MESSAGES = new Properties();
@@ -41,40 +44,110 @@ public class WordAppium {
     }
 
     public static void generarReporte(String nombreEscenario, String[] pasosEjecutados, String numero, String duracionFormato, String pasoFallido, String estadoFinal) {
-        File[] capturas = new File(CAPTURAS_DIR).listFiles();
-        if (capturas == null || capturas.length == 0) {
+        generarReporte(InstantaneaEscenario.capturar(nombreEscenario, pasosEjecutados, numero, duracionFormato, 0L, pasoFallido, estadoFinal));
+    }
+
+    /**
+     * Genera el reporte a partir de una instantánea inmutable; puede ejecutarse fuera del hilo del escenario.
+     * Devuelve false si el reporte no se pudo escribir (un escenario sin capturas no es un error).
+     */
+    public static boolean generarReporte(InstantaneaEscenario escenario) {
+        if (escenario.sinCapturas()) {
             LOGGER.warning("No hay capturas para procesar.");
-            return;
+            escenario.eliminarCapturas();
+            return true;
         }
 
         new File(REPORTES_DIR).mkdirs();
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String nombreArchivo = "Prueba_" + nombreEscenario.replaceAll("\\s+", "_") + "_" + timestamp + ".docx";
-        String rutaDestino = REPORTES_DIR + File.separator + nombreArchivo;
+        String rutaDestino;
+        try {
+            rutaDestino = reservarRuta("Prueba_" + escenario.getNombreEscenario().replaceAll("\\s+", "_") + "_" + timestamp, ".docx");
+        } catch (IOException e) {
+            LOGGER.severe("No se pudo crear el archivo del reporte: " + e.getMessage());
+            return false;
+        }
         System.out.println("📄 Guardando en: " + rutaDestino);
-        try (FileInputStream fis = new FileInputStream(TEMPLATE_PATH);
-             XWPFDocument doc = new XWPFDocument(fis);
+        long inicio = System.nanoTime();
+        long asignadosAntes = bytesAsignados();
+        boolean generado = false;
+        try (XWPFDocument doc = PlantillaCache.nuevoDocumento();
              FileOutputStream fos = new FileOutputStream(rutaDestino)) {
 
-            reemplazarTexto(doc, "{{ESCENARIO}}", nombreEscenario);
-            reemplazarTexto(doc, "{{FECHA}}", FORMATTER.format(LocalDateTime.now()));
-            reemplazarTexto(doc, "{{LINEA}}", numero);
-            reemplazarTexto(doc, "{{DURACION}}", duracionFormato);
-          //  reemplazarTexto(doc, "{{CONCLUSION}}", generarConclusion(pasosEjecutados, pasoFallido, estadoFinal, linea));
-            agregarPasosYCapturas(doc, pasosEjecutados, capturas);
+            completarReporte(doc, escenario);
 
             doc.write(fos);
-            LOGGER.info("Reporte generado correctamente: " + rutaDestino);
+            fos.flush();
+            generado = true;
+            LOGGER.info(String.format("Reporte generado correctamente en %d ms (%d KB, %d MB asignados): %s",
+                    (System.nanoTime() - inicio) / 1_000_000, new File(rutaDestino).length() / 1024,
+                    (bytesAsignados() - asignadosAntes) / (1024 * 1024), rutaDestino));
 
         } catch (IOException | InvalidFormatException e) {
             LOGGER.severe("Error generando el reporte Word: " + e.getMessage());
+        } finally {
+            // El archivo se reservó antes de renderizar: si falló no se deja un .docx vacío o truncado
+            if (!generado) {
+                new File(rutaDestino).delete();
+            }
         }
 
-        eliminarCapturas(capturas);
+        escenario.eliminarCapturas();
+        return generado;
     }
 
-    private static void agregarPasosYCapturas(XWPFDocument doc, String[] pasos, File[] capturas) throws IOException, InvalidFormatException {
-        for (String paso : pasos) {
+    /**
+     * Crea el archivo del reporte de forma atómica; si el nombre ya existe (mismo escenario en el mismo
+     * segundo, p. ej. al renderizar en paralelo) agrega un sufijo _2, _3... Si el render falla, quien lo
+     * reservó debe borrarlo.
+     */
+    static String reservarRuta(String base, String extension) throws IOException {
+        for (int i = 1; ; i++) {
+            File archivo = new File(REPORTES_DIR, base + (i == 1 ? "" : "_" + i) + extension);
+            if (archivo.createNewFile()) {
+                return archivo.getPath();
+            }
+        }
+    }
+
+    static void completarReporte(XWPFDocument doc, InstantaneaEscenario escenario) throws IOException, InvalidFormatException {
+        SustitucionPlantilla.aplicar(doc, valoresPlantilla(escenario));
+        agregarNotas(doc, escenario);
+        agregarPasosYCapturas(doc, escenario);
+    }
+
+    /**
+     * Notas de rendimiento del escenario, una línea por nota, antes de los pasos.
+     */
+    static void agregarNotas(XWPFDocument doc, InstantaneaEscenario escenario) {
+        for (Map.Entry<String, String> nota : escenario.getNotas().entrySet()) {
+            XWPFRun run = doc.createParagraph().createRun();
+            run.setFontSize(10);
+            run.setText(nota.getKey() + ": " + nota.getValue());
+        }
+    }
+
+    /**
+     * Valores de los marcadores {{CLAVE}} de la plantilla; agregar un campo no agrega recorridos del documento.
+     */
+    static Map<String, String> valoresPlantilla(InstantaneaEscenario escenario) {
+        Map<String, String> valores = new HashMap<>();
+        valores.put("ESCENARIO", escenario.getNombreEscenario());
+        valores.put("FECHA", FORMATTER.format(LocalDateTime.now()));
+        valores.put("LINEA", escenario.getLinea());
+        valores.put("DURACION", escenario.getDuracionFormato());
+        valores.put("ESTADO", escenario.getEstadoFinal());
+        valores.put("PASO_FALLIDO", escenario.getPasoFallido() == null ? "" : escenario.getPasoFallido());
+      //  valores.put("CONCLUSION", generarConclusion(pasosEjecutados, pasoFallido, estadoFinal, linea));
+        return valores;
+    }
+
+    static void agregarPasosYCapturas(XWPFDocument doc, InstantaneaEscenario escenario) throws IOException, InvalidFormatException {
+        // Pasos que comparten captura reutilizan la misma imagen ya escalada (y POI la incrusta una sola vez)
+        Map<File, EscaladorImagenes.ImagenEscalada> escaladas = new HashMap<>();
+        int indice = 0;
+        for (String paso : escenario.getPasos()) {
+            indice++;
             XWPFParagraph p = doc.createParagraph();
             p.setSpacingBefore(200);
             XWPFRun run = p.createRun();
@@ -86,12 +159,18 @@ public class WordAppium {
             XWPFRun espacioRun = espacio.createRun();
             espacioRun.setText(""); // este es el salto en blanco
 
-            File imagen = buscarCapturaDePaso(paso, capturas);
+            File imagen = escenario.capturaDe(indice);
             if (imagen != null) {
                 XWPFParagraph imgP = doc.createParagraph();
                 XWPFRun imgRun = imgP.createRun();
-                try (FileInputStream is = new FileInputStream(imagen)) {
-                    imgRun.addPicture(is, Document.PICTURE_TYPE_PNG, imagen.getName(), Units.toEMU(150), Units.toEMU(270));
+                EscaladorImagenes.ImagenEscalada escalada = escaladas.get(imagen);
+                if (escalada == null) {
+                    escalada = EscaladorImagenes.preparar(imagen, IMAGEN_ANCHO_PT, IMAGEN_ALTO_PT);
+                    escaladas.put(imagen, escalada);
+                }
+                try (ByteArrayInputStream is = new ByteArrayInputStream(escalada.getBytes())) {
+                    imgRun.addPicture(is, escalada.getTipo(), imagen.getName() + "." + escalada.getExtension(),
+                            Units.toEMU(IMAGEN_ANCHO_PT), Units.toEMU(IMAGEN_ALTO_PT));
                 }
             } else {
                 XWPFRun noImgRun = doc.createParagraph().createRun();
@@ -101,16 +180,6 @@ public class WordAppium {
     }
 
 
-    private static File buscarCapturaDePaso(String paso, File[] capturas) {
-        String normalizado = paso.toLowerCase().replaceAll("[^a-z0-9]", "_");
-        for (File f : capturas) {
-            if (f.getName().toLowerCase().contains(normalizado)) {
-                return f;
-            }
-        }
-        return null;
-    }
-
     private static String generarConclusion(String[] pasos, String pasoFallido, String estadoFinal, String linea) {
         StringBuilder conclusion = new StringBuilder();
     //    conclusion.append(messages.getString("report.initial_message").replace("{0}", linea)).append("\n\n");
@@ -150,50 +219,15 @@ public class WordAppium {
         return paso;
     }
 
-    private static void eliminarCapturas(File[] capturas) {
-        for (File captura : capturas) {
-            try {
-                Files.deleteIfExists(captura.toPath());
-            } catch (IOException e) {
-                LOGGER.warning("No se pudo eliminar la captura: " + captura.getName());
-            }
-        }
-    }
-
-    private static void reemplazarTexto(XWPFDocument doc, String marcador, String valor) {
-        for (XWPFParagraph p : doc.getParagraphs()) {
-            for (XWPFRun r : p.getRuns()) {
-                String text = r.getText(0);
-                if (text != null && text.contains(marcador)) {
-                    r.setText(text.replace(marcador, valor), 0);
-                }
-            }
-        }
-
-        for (XWPFTable t : doc.getTables()) {
-            for (XWPFTableRow row : t.getRows()) {
-                for (XWPFTableCell cell : row.getTableCells()) {
-                    for (XWPFParagraph p : cell.getParagraphs()) {
-                        for (XWPFRun r : p.getRuns()) {
-                            String text = r.getText(0);
-                            if (text != null && text.contains(marcador)) {
-                                r.setText(text.replace(marcador, valor), 0);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    public static void inicializarPlantillaReporte() {
-        try {
-            String origen = System.getProperty("user.dir") + File.separator + "ruta" + File.separator + "PlantillaInforme.docx";
-            String destino = System.getProperty("user.dir") + File.separator + "ruta" + File.separator + "InformeFinal.docx";
-            Files.copy(Paths.get(origen), Paths.get(destino), StandardCopyOption.REPLACE_EXISTING);
-            LOGGER.info("Plantilla copiada correctamente.");
-        } catch (IOException e) {
-            LOGGER.severe("Error al copiar la plantilla: " + e.getMessage());
+    /**
+     * Bytes asignados en el heap por el hilo actual desde su inicio (0 si la JVM no lo mide). Solo cuenta
+     * el trabajo de este reporte, aunque otros hilos generen reportes o corran escenarios a la vez.
+     */
+    private static long bytesAsignados() {
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean) {
+            return Math.max(0L, ((com.sun.management.ThreadMXBean) hilos).getThreadAllocatedBytes(Thread.currentThread().getId()));
         }
+        return 0L;
     }
 }
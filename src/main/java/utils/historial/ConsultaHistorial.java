@@ -0,0 +1,92 @@
+package utils.historial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reportes del historial de ejecuciones ({@link HistorialEjecuciones}) por consola.
+ *
+ * - percentiles: p50 y p95 de cada paso en las últimas N corridas.
+ * - lentos: los pasos con mayor p95 en las últimas N corridas.
+ * - tendencia: pasos cuyo tiempo medio por corrida crece (pendiente de la regresión lineal sobre el
+ *   número de corrida, REGR_SLOPE), con al menos 3 corridas.
+ *
+ * Uso: gradle historial [-Preporte=percentiles|lentos|tendencia|todos] [-Pcorridas=10] [-Plimite=20]
+ */
+public class ConsultaHistorial {
+
+  // Últimas N corridas, numeradas en orden cronológico (H2 no enlaza parámetros dentro de un WITH
+  // que se reevalúa, así que N va en el texto; es un entero)
+  private static final String CORRIDAS = "WITH corridas AS (SELECT id, ROW_NUMBER() OVER (ORDER BY MIN(inicio)) AS n "
+          + "FROM ejecuciones GROUP BY id ORDER BY n DESC LIMIT %d) ";
+
+  private static final String PERCENTILES = CORRIDAS
+          + "SELECT p.paso, COUNT(*) AS muestras, "
+          + "PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY p.duracion_ms) AS p50, "
+          + "PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY p.duracion_ms) AS p95 "
+          + "FROM pasos p JOIN corridas c ON p.ejecucion = c.id WHERE p.resultado <> 'INTERRUMPIDO' "
+          + "GROUP BY p.paso ORDER BY %s LIMIT ?";
+
+  private static final String TENDENCIA = CORRIDAS
+          + ", por_corrida AS (SELECT p.paso, c.n, AVG(p.duracion_ms) AS ms FROM pasos p "
+          + "JOIN corridas c ON p.ejecucion = c.id WHERE p.resultado = 'SUCCESS' GROUP BY p.paso, c.n) "
+          + "SELECT paso, COUNT(*) AS muestras, AVG(ms) AS media, REGR_SLOPE(ms, n) AS pendiente "
+          + "FROM por_corrida GROUP BY paso HAVING COUNT(*) >= 3 AND REGR_SLOPE(ms, n) > 0 "
+          + "ORDER BY REGR_SLOPE(ms, n) / AVG(ms) DESC LIMIT ?";
+
+  public static void main(String[] args) throws SQLException {
+    String reporte = args.length > 0 && !args[0].isEmpty() ? args[0] : "todos";
+    int corridas = args.length > 1 && !args[1].isEmpty() ? Integer.parseInt(args[1]) : 10;
+    int limite = args.length > 2 && !args[2].isEmpty() ? Integer.parseInt(args[2]) : 20;
+
+    try (Connection conexion = HistorialEjecuciones.abrir()) {
+      System.out.println("🗄️ Historial: " + HistorialEjecuciones.RUTA + " (últimas " + corridas + " corridas)");
+      if ("percentiles".equals(reporte) || "todos".equals(reporte)) {
+        System.out.println("\n📊 p50 / p95 por paso (ms)");
+        percentiles(conexion, "p.paso", corridas, Integer.MAX_VALUE);
+      }
+      if ("lentos".equals(reporte) || "todos".equals(reporte)) {
+        System.out.println("\n🐢 Pasos más lentos por p95 (ms)");
+        percentiles(conexion, "p95 DESC", corridas, limite);
+      }
+      if ("tendencia".equals(reporte) || "todos".equals(reporte)) {
+        System.out.println("\n📈 Pasos con tiempo en aumento (ms por corrida)");
+        tendencia(conexion, corridas, limite);
+      }
+    }
+  }
+
+  private static void percentiles(Connection conexion, String orden, int corridas, int limite) throws SQLException {
+    try (PreparedStatement sql = conexion.prepareStatement(String.format(PERCENTILES, corridas, orden))) {
+      sql.setInt(1, limite);
+      try (ResultSet filas = sql.executeQuery()) {
+        System.out.printf("%10s %10s %8s  %s%n", "p50", "p95", "n", "paso");
+        while (filas.next()) {
+          System.out.printf("%10.0f %10.0f %8d  %s%n", filas.getDouble("p50"), filas.getDouble("p95"),
+                  filas.getLong("muestras"), recortar(filas.getString("paso")));
+        }
+      }
+    }
+  }
+
+  private static void tendencia(Connection conexion, int corridas, int limite) throws SQLException {
+    try (PreparedStatement sql = conexion.prepareStatement(String.format(TENDENCIA, corridas))) {
+      sql.setInt(1, limite);
+      try (ResultSet filas = sql.executeQuery()) {
+        System.out.printf("%10s %10s %8s %8s  %s%n", "ms/corr.", "media", "%/corr.", "corr.", "paso");
+        while (filas.next()) {
+          double pendiente = filas.getDouble("pendiente");
+          double media = filas.getDouble("media");
+          System.out.printf("%+10.1f %10.0f %+7.1f%% %8d  %s%n", pendiente, media,
+                  media > 0 ? pendiente / media * 100 : 0, filas.getLong("muestras"), recortar(filas.getString("paso")));
+        }
+      }
+    }
+  }
+
+  private static String recortar(String paso) {
+    return paso.length() > 90 ? paso.substring(0, 87) + "..." : paso;
+  }
+}
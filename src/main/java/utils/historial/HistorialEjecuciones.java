@@ -0,0 +1,204 @@
+package utils.historial;
+
+import utils.DirectoriosEvidencia;
+import utils.FinSuite;
+import utils.PoolDispositivos;
+import utils.ScenarioContext;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Historial de ejecuciones en una base H2 embebida (por defecto target/historial/ejecuciones).
+ *
+ * Guarda cada ejecución, escenario y paso con su duración, dispositivo, versión de la app y
+ * resultado, para consultar tendencias entre corridas con {@link ConsultaHistorial}. Los pasos se
+ * acumulan en el ScenarioContext del hilo (cada dispositivo en paralelo lleva los suyos) y se
+ * insertan en lote al terminar cada escenario. Con AUTO_SERVER varios forks
+ * pueden escribir en la misma base a la vez.
+ */
+public class HistorialEjecuciones {
+
+  private static final Logger LOGGER = Logger.getLogger(HistorialEjecuciones.class.getName());
+
+  private static final boolean HABILITADO =
+          Boolean.parseBoolean(System.getProperty("historial.habilitado", "true"));
+  static final String RUTA = System.getProperty("historial.ruta",
+          "target" + File.separator + "historial" + File.separator + "ejecuciones");
+  private static final String APP_PAQUETE = System.getProperty("appium.appPackage", "com.clarocolombia.miclaro").trim();
+
+  private static final Map<String, String> versionesApp = new ConcurrentHashMap<>();
+  private static Connection conexion;
+  private static boolean ejecucionRegistrada = false;
+
+  private HistorialEjecuciones() {}
+
+  static Connection abrir() throws SQLException {
+    Connection nueva = DriverManager.getConnection(
+            "jdbc:h2:file:" + new File(RUTA).getAbsolutePath() + ";AUTO_SERVER=TRUE", "sa", "");
+    try (Statement sql = nueva.createStatement()) {
+      sql.execute("CREATE TABLE IF NOT EXISTS ejecuciones (id VARCHAR(64), fork VARCHAR(64), "
+              + "inicio TIMESTAMP, PRIMARY KEY (id, fork))");
+      sql.execute("CREATE TABLE IF NOT EXISTS escenarios (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+              + "ejecucion VARCHAR(64), fork VARCHAR(64), escenario VARCHAR(1000), dispositivo VARCHAR(128), "
+              + "version_app VARCHAR(64), resultado VARCHAR(16), duracion_ms BIGINT, fin TIMESTAMP)");
+      sql.execute("CREATE TABLE IF NOT EXISTS pasos (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+              + "ejecucion VARCHAR(64), fork VARCHAR(64), escenario VARCHAR(1000), paso VARCHAR(2000), "
+              + "nivel INT, dispositivo VARCHAR(128), version_app VARCHAR(64), resultado VARCHAR(16), "
+              + "duracion_ms DOUBLE, espera_ms DOUBLE, driver_ms DOUBLE, fin TIMESTAMP)");
+      sql.execute("CREATE INDEX IF NOT EXISTS idx_pasos_ejecucion ON pasos (ejecucion, paso)");
+    }
+    return nueva;
+  }
+
+  /**
+   * Acumula un paso terminado; se inserta con su escenario.
+   */
+  public static void paso(String escenario, String paso, int nivel, String resultado,
+                          double duracionMs, double esperaMs, double driverMs) {
+    if (!HABILITADO) {
+      return;
+    }
+    Object[] fila = {escenario, paso, nivel, dispositivo(), versionApp(), resultado,
+            duracionMs, esperaMs, driverMs, new Timestamp(System.currentTimeMillis())};
+    ScenarioContext.actual().getPasosHistorial().add(fila);
+  }
+
+  /**
+   * Registra el escenario terminado junto con los pasos acumulados en su hilo. Se llama desde el hilo
+   * del escenario.
+   */
+  public static void escenario(String escenario, boolean fallido, long duracionMs) {
+    if (!HABILITADO) {
+      return;
+    }
+    List<Object[]> pendientes = ScenarioContext.actual().getPasosHistorial();
+    List<Object[]> pasos = new ArrayList<>(pendientes);
+    pendientes.clear();
+    try {
+      guardar(escenario, fallido ? "FAILED" : "PASSED", duracionMs, pasos);
+    } catch (SQLException e) {
+      LOGGER.warning("No se pudo guardar el escenario en el historial: " + e.getMessage());
+    }
+  }
+
+  private static synchronized void guardar(String escenario, String resultado, long duracionMs,
+                                           List<Object[]> pasos) throws SQLException {
+    if (conexion == null) {
+      conexion = abrir();
+      FinSuite.registrar("historial", HistorialEjecuciones::cerrar);
+    }
+    conexion.setAutoCommit(false);
+    try {
+      if (!ejecucionRegistrada) {
+        try (PreparedStatement sql = conexion.prepareStatement(
+                "MERGE INTO ejecuciones (id, fork, inicio) KEY (id, fork) VALUES (?, ?, ?)")) {
+          sql.setString(1, DirectoriosEvidencia.idEjecucion());
+          sql.setString(2, DirectoriosEvidencia.idFork());
+          sql.setTimestamp(3, new Timestamp(System.currentTimeMillis() - duracionMs));
+          sql.executeUpdate();
+        }
+        ejecucionRegistrada = true;
+      }
+      try (PreparedStatement sql = conexion.prepareStatement("INSERT INTO escenarios (ejecucion, fork, "
+              + "escenario, dispositivo, version_app, resultado, duracion_ms, fin) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+        sql.setString(1, DirectoriosEvidencia.idEjecucion());
+        sql.setString(2, DirectoriosEvidencia.idFork());
+        sql.setString(3, escenario);
+        sql.setString(4, dispositivo());
+        sql.setString(5, versionApp());
+        sql.setString(6, resultado);
+        sql.setLong(7, duracionMs);
+        sql.setTimestamp(8, new Timestamp(System.currentTimeMillis()));
+        sql.executeUpdate();
+      }
+      try (PreparedStatement sql = conexion.prepareStatement("INSERT INTO pasos (ejecucion, fork, escenario, "
+              + "paso, nivel, dispositivo, version_app, resultado, duracion_ms, espera_ms, driver_ms, fin) "
+              + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+        for (Object[] fila : pasos) {
+          sql.setString(1, DirectoriosEvidencia.idEjecucion());
+          sql.setString(2, DirectoriosEvidencia.idFork());
+          for (int i = 0; i < fila.length; i++) {
+            sql.setObject(i + 3, fila[i]);
+          }
+          sql.addBatch();
+        }
+        sql.executeBatch();
+      }
+      conexion.commit();
+    } catch (SQLException e) {
+      conexion.rollback();
+      throw e;
+    }
+  }
+
+  private static synchronized void cerrar() {
+    try {
+      if (conexion != null) {
+        conexion.close();
+        conexion = null;
+        System.out.println("🗄️ Historial de ejecuciones en: " + new File(RUTA).getAbsolutePath() + ".mv.db");
+      }
+    } catch (SQLException e) {
+      LOGGER.warning("No se pudo cerrar el historial: " + e.getMessage());
+    }
+  }
+
+  private static String dispositivo() {
+    PoolDispositivos.Dispositivo dispositivo = PoolDispositivos.actual();
+    return dispositivo == null ? "local" : dispositivo.getUdid();
+  }
+
+  /**
+   * Versión de la app: app.version si se define, o versionName según adb (una consulta por dispositivo).
+   */
+  private static String versionApp() {
+    String configurada = System.getProperty("app.version", "");
+    if (!configurada.isEmpty()) {
+      return configurada;
+    }
+    PoolDispositivos.Dispositivo dispositivo = PoolDispositivos.actual();
+    String udid = dispositivo == null ? "" : dispositivo.getUdid();
+    return versionesApp.computeIfAbsent(udid, HistorialEjecuciones::consultarVersion);
+  }
+
+  private static String consultarVersion(String udid) {
+    List<String> comando = new ArrayList<>();
+    comando.add("adb");
+    if (!udid.isEmpty()) {
+      comando.add("-s");
+      comando.add(udid);
+    }
+    comando.add("shell");
+    comando.add("dumpsys package " + APP_PAQUETE + " | grep versionName");
+    try {
+      Process proceso = new ProcessBuilder(comando).redirectErrorStream(true).start();
+      String linea;
+      try (BufferedReader salida = new BufferedReader(
+              new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8))) {
+        linea = salida.readLine();
+      }
+      proceso.waitFor(5, TimeUnit.SECONDS);
+      if (linea != null && linea.contains("versionName=")) {
+        return linea.substring(linea.indexOf("versionName=") + "versionName=".length()).trim();
+      }
+    } catch (Exception e) {
+      LOGGER.fine("No se pudo consultar la versión de la app: " + e.getMessage());
+    }
+    return "desconocida";
+  }
+}
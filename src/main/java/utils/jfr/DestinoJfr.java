@@ -0,0 +1,48 @@
+package utils.jfr;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import utils.DirectoriosEvidencia;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.Logger;
+
+/**
+ * Nombre del .jfr de cada fork.
+ *
+ * Gradle pasa los mismos jvmArgs a todos los forks de la tarea de pruebas y %p en filename= solo se
+ * expande desde JDK 17, así que build.gradle arranca la grabación sin archivo (jfr.destino indica el
+ * directorio) y el fork fija aquí su destino: &lt;jfr.destino&gt;/prueba_&lt;fork&gt;.jfr, que dumponexit
+ * escribe al salir.
+ */
+public class DestinoJfr {
+
+  private static final Logger LOGGER = Logger.getLogger(DestinoJfr.class.getName());
+
+  private static final String DIRECTORIO = System.getProperty("jfr.destino", "");
+  private static final String GRABACION = "automatizacion";
+  private static boolean asignado = false;
+
+  private DestinoJfr() {}
+
+  public static synchronized void asignar() {
+    if (asignado || DIRECTORIO.isEmpty() || !FlightRecorder.isAvailable()) {
+      return;
+    }
+    asignado = true;
+    Path destino = Paths.get(DIRECTORIO, "prueba_" + DirectoriosEvidencia.idFork() + ".jfr");
+    try {
+      Files.createDirectories(destino.getParent());
+      for (Recording grabacion : FlightRecorder.getFlightRecorder().getRecordings()) {
+        if (GRABACION.equals(grabacion.getName())) {
+          grabacion.setDestination(destino);
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo fijar el destino de la grabación JFR: " + e.getMessage());
+    }
+  }
+}
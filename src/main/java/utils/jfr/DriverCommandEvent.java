@@ -0,0 +1,27 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Comando enviado al servidor de Appium (ida y vuelta HTTP completa).
+ */
+@Name("automatizacion.ComandoDriver")
+@Label("Comando del driver")
+@Category({"Automatización", "Appium"})
+@Description("Comando de WebDriver/Appium ejecutado por utils.MyDriver")
+@StackTrace(false)
+public class DriverCommandEvent extends jdk.jfr.Event {
+
+  @Label("Comando")
+  public String comando;
+
+  @Label("Sesión")
+  public String sesion;
+
+  @Label("Exitoso")
+  public boolean exitoso;
+}
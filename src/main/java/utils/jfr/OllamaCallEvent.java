@@ -0,0 +1,31 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Llamada de utils.OllamaClient al modelo local.
+ */
+@Name("automatizacion.LlamadaOllama")
+@Label("Llamada a Ollama")
+@Category({"Automatización", "Ollama"})
+@StackTrace(false)
+public class OllamaCallEvent extends jdk.jfr.Event {
+
+  @Label("Modelo")
+  public String modelo;
+
+  @Label("Caracteres del prompt")
+  public int caracteresPrompt;
+
+  @Label("Caracteres de la respuesta")
+  public int caracteresRespuesta;
+
+  @Label("Código HTTP")
+  public int codigoHttp;
+
+  @Label("Exitosa")
+  public boolean exitosa;
+}
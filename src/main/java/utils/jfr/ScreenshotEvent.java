@@ -0,0 +1,41 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Captura de evidencia guardada (o reutilizada por deduplicación).
+ */
+@Name("automatizacion.Captura")
+@Label("Captura de pantalla")
+@Category({"Automatización", "Evidencia"})
+@Description("Captura de evidencia: hash perceptual, borde, codificación PNG y escritura")
+@StackTrace(false)
+public class ScreenshotEvent extends jdk.jfr.Event {
+
+  @Label("Nombre")
+  public String nombre;
+
+  @Label("Tamaño PNG")
+  @DataAmount(DataAmount.BYTES)
+  public long bytes;
+
+  @Label("Codificación PNG")
+  @Timespan(Timespan.NANOSECONDS)
+  public long codificacion;
+
+  @Label("Ancho")
+  public int ancho;
+
+  @Label("Alto")
+  public int alto;
+
+  @Label("Reutilizada")
+  @Description("true si la pantalla era casi idéntica a la anterior y no se codificó")
+  public boolean reutilizada;
+}
@@ -0,0 +1,35 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Paso de Serenity (paso de Cucumber, tarea o interacción de Screenplay). Lo emite utils.Telemetria
+ * con la misma pila de marcos que la telemetría por paso.
+ */
+@Name("automatizacion.Paso")
+@Label("Paso")
+@Category({"Automatización", "Escenario"})
+@Description("Paso de Cucumber, tarea o interacción de Screenplay")
+@StackTrace(false)
+public class StepEvent extends jdk.jfr.Event {
+
+  @Label("Paso")
+  public String paso;
+
+  @Label("Escenario")
+  public String escenario;
+
+  @Label("Nivel")
+  @Description("0 para el paso de Cucumber, mayor para tareas e interacciones anidadas")
+  public int nivel;
+
+  @Label("Resultado")
+  public String resultado;
+
+  @Label("Dispositivo")
+  public String dispositivo;
+}
@@ -0,0 +1,32 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Espera explícita (WaitFor, WaitForElement, WaitForResponse o pausa fija). El tiempo real es la duración del evento.
+ */
+@Name("automatizacion.Espera")
+@Label("Espera")
+@Category({"Automatización", "Esperas"})
+@Description("Espera por un elemento o pausa fija")
+@StackTrace(false)
+public class WaitEvent extends jdk.jfr.Event {
+
+  @Label("Objetivo")
+  @Description("Texto o elemento esperado, o 'pausa' para una espera fija")
+  public String objetivo;
+
+  @Label("Tiempo máximo")
+  @Description("0 si la espera usa el tiempo máximo por defecto de WaitUntil")
+  @Timespan(Timespan.MILLISECONDS)
+  public long timeout;
+
+  @Label("Resultado")
+  @Description("ENCONTRADO, TIMEOUT, PAUSA o INTERRUMPIDA")
+  public String resultado;
+}
@@ -0,0 +1,301 @@
+package utils.metricas;
+
+import utils.DirectoriosEvidencia;
+import utils.EscritorReportes;
+import utils.FinSuite;
+import utils.PoolDispositivos;
+import utils.ScenarioContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Métricas de rendimiento de la ejecución para el textfile collector de node-exporter.
+ *
+ * Contadores e histogramas (en segundos) de escenarios, pasos, esperas, comandos de Appium, capturas,
+ * llamadas a Ollama y generación de reportes, y cuantiles de la latencia de login, de los fotogramas de los
+ * gestos de scroll y del consumo de red y batería por escenario, etiquetados por dispositivo, tag del escenario y método
+ * de login. El archivo &lt;metricas.directorio&gt;/automatizacion_&lt;instancia&gt;.prom se reescribe de forma
+ * atómica cada metricas.intervalo.segundos y al terminar la suite, así el collector nunca lee un
+ * archivo a medias.
+ *
+ * La instancia (fork1, fork2...) es la primera ranura libre entre los procesos de la ejecución: el
+ * nombre del archivo se repite de una corrida a otra en vez de acumularse, y la etiqueta instancia de
+ * cada serie evita que dos procesos expongan series idénticas, que el collector rechaza. Al reclamarla
+ * se borran los archivos de corridas anteriores.
+ */
+public class Metricas {
+
+  private static final Logger LOGGER = Logger.getLogger(Metricas.class.getName());
+
+  private static final boolean HABILITADAS =
+          Boolean.parseBoolean(System.getProperty("metricas.habilitadas", "true"));
+  private static final String DIRECTORIO =
+          System.getProperty("metricas.directorio", "target" + File.separator + "metricas");
+  private static final long INTERVALO_SEGUNDOS =
+          Long.parseLong(System.getProperty("metricas.intervalo.segundos", "30"));
+
+  /** Claves de ScenarioContext con las que se etiquetan las métricas del escenario. */
+  public static final String DATO_TAG = "metricas.tag";
+  public static final String DATO_METODO_LOGIN = "metricas.metodoLogin";
+
+  private static final double[] SEGUNDOS_ESCENARIO = {5, 10, 30, 60, 120, 300, 600, 1200};
+  private static final double[] SEGUNDOS_PASO = {0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120};
+  private static final double[] SEGUNDOS_COMANDO = {0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+  private static final double[] SEGUNDOS_OLLAMA = {1, 5, 10, 30, 60, 120, 180};
+  private static final double[] CUANTILES = {0.5, 0.9, 0.99};
+
+  private static final String PREFIJO_ARCHIVO = "automatizacion_";
+  private static final String SUFIJO_RECLAMO = ".reclamo";
+
+  private static final RegistroMetricas REGISTRO = new RegistroMetricas();
+  private static ScheduledExecutorService exportador;
+  private static String instancia;
+
+  static {
+    REGISTRO.registrarContador("automatizacion_escenarios_total",
+            "Escenarios terminados por resultado", "dispositivo", "tag", "metodo", "resultado");
+    REGISTRO.registrarHistograma("automatizacion_escenario_segundos",
+            "Duración de los escenarios", SEGUNDOS_ESCENARIO, "dispositivo", "tag", "metodo", "resultado");
+    REGISTRO.registrarHistograma("automatizacion_paso_segundos",
+            "Duración de pasos de Cucumber (tipo=paso) y tareas o interacciones (tipo=tarea)",
+            SEGUNDOS_PASO, "dispositivo", "tag", "metodo", "tipo");
+    REGISTRO.registrarHistograma("automatizacion_espera_segundos",
+            "Duración de esperas explícitas y pausas", SEGUNDOS_PASO, "dispositivo", "tag");
+    REGISTRO.registrarHistograma("automatizacion_comando_appium_segundos",
+            "Latencia de los comandos de Appium", SEGUNDOS_COMANDO, "dispositivo", "comando");
+    REGISTRO.registrarHistograma("automatizacion_captura_segundos",
+            "Latencia de captura y guardado de evidencia", SEGUNDOS_COMANDO, "dispositivo");
+    REGISTRO.registrarHistograma("automatizacion_ollama_segundos",
+            "Latencia de las llamadas a Ollama", SEGUNDOS_OLLAMA, "resultado");
+    REGISTRO.registrarResumen("automatizacion_login_segundos",
+            "Latencia del login: CONTINUAR a fin de la carga (fase=carga), fin de la carga a home (fase=home) o a un "
+                    + "diálogo que se interpone (fase=dialogo) y total de los logins que llegan al home",
+            CUANTILES, "dispositivo", "metodo", "fase");
+    REGISTRO.registrarResumen("automatizacion_fotograma_segundos",
+            "Tiempo de dibujo de los fotogramas durante gestos de scroll (gfxinfo framestats)",
+            CUANTILES, "dispositivo", "gesto");
+    REGISTRO.registrarContador("automatizacion_fotogramas_jank_total",
+            "Fotogramas de gestos de scroll que superaron el periodo de refresco", "dispositivo", "gesto");
+    REGISTRO.registrarResumen("automatizacion_red_bytes",
+            "Bytes de red de la app por escenario (direccion=recibidos|enviados)",
+            CUANTILES, "dispositivo", "metodo", "direccion");
+    REGISTRO.registrarResumen("automatizacion_bateria_mah",
+            "Energía estimada de la app por escenario según batterystats", CUANTILES, "dispositivo", "metodo");
+    REGISTRO.registrarHistograma("automatizacion_reporte_segundos",
+            "Tiempo de generación de reportes por escenario", SEGUNDOS_PASO, "formato");
+  }
+
+  private Metricas() {}
+
+  public static RegistroMetricas registro() {
+    return REGISTRO;
+  }
+
+  public static void escenario(boolean fallido, long duracionMs) {
+    if (!HABILITADAS) {
+      return;
+    }
+    String resultado = fallido ? "fallido" : "exitoso";
+    REGISTRO.incrementar("automatizacion_escenarios_total", dispositivo(), tag(), metodoLogin(), resultado);
+    REGISTRO.observar("automatizacion_escenario_segundos", duracionMs / 1000.0,
+            dispositivo(), tag(), metodoLogin(), resultado);
+    exportador();
+  }
+
+  public static void paso(boolean pasoCucumber, long nanos) {
+    if (HABILITADAS) {
+      REGISTRO.observar("automatizacion_paso_segundos", nanos / 1e9,
+              dispositivo(), tag(), metodoLogin(), pasoCucumber ? "paso" : "tarea");
+      exportador();
+    }
+  }
+
+  public static void espera(long nanos) {
+    if (HABILITADAS) {
+      REGISTRO.observar("automatizacion_espera_segundos", nanos / 1e9, dispositivo(), tag());
+    }
+  }
+
+  public static void comandoAppium(String comando, long nanos) {
+    if (HABILITADAS) {
+      REGISTRO.observar("automatizacion_comando_appium_segundos", nanos / 1e9, dispositivo(), comando);
+    }
+  }
+
+  public static void captura(long nanos) {
+    if (HABILITADAS) {
+      REGISTRO.observar("automatizacion_captura_segundos", nanos / 1e9, dispositivo());
+    }
+  }
+
+  public static void ollama(boolean exitosa, long duracionMs) {
+    if (HABILITADAS) {
+      REGISTRO.observar("automatizacion_ollama_segundos", duracionMs / 1000.0, exitosa ? "exitosa" : "error");
+    }
+  }
+
+  public static void login(String metodo, String fase, double milisegundos) {
+    if (HABILITADAS) {
+      REGISTRO.observar("automatizacion_login_segundos", milisegundos / 1000.0, dispositivo(), metodo, fase);
+      exportador();
+    }
+  }
+
+  public static void fotograma(String gesto, double milisegundos, boolean jank) {
+    if (HABILITADAS) {
+      REGISTRO.observar("automatizacion_fotograma_segundos", milisegundos / 1000.0, dispositivo(), gesto);
+      if (jank) {
+        REGISTRO.incrementar("automatizacion_fotogramas_jank_total", dispositivo(), gesto);
+      }
+    }
+  }
+
+  /**
+   * Consumo de un escenario; se llama desde el hilo de utils.PerfilConsumo, por eso recibe el dispositivo.
+   * Los valores negativos o NaN (no medidos) se omiten.
+   */
+  public static void consumo(String dispositivo, String metodo, long recibidos, long enviados, double mah) {
+    if (!HABILITADAS) {
+      return;
+    }
+    if (recibidos >= 0) {
+      REGISTRO.observar("automatizacion_red_bytes", recibidos, dispositivo, metodo, "recibidos");
+    }
+    if (enviados >= 0) {
+      REGISTRO.observar("automatizacion_red_bytes", enviados, dispositivo, metodo, "enviados");
+    }
+    if (!Double.isNaN(mah)) {
+      REGISTRO.observar("automatizacion_bateria_mah", mah, dispositivo, metodo);
+    }
+  }
+
+  public static void reporte(String formato, long nanos) {
+    if (HABILITADAS) {
+      REGISTRO.observar("automatizacion_reporte_segundos", nanos / 1e9, formato);
+    }
+  }
+
+  static String dispositivo() {
+    PoolDispositivos.Dispositivo dispositivo = PoolDispositivos.actual();
+    return dispositivo == null ? "local" : dispositivo.getUdid();
+  }
+
+  static String tag() {
+    return ScenarioContext.actual().getDatos().getOrDefault(DATO_TAG, "sin_tag");
+  }
+
+  static String metodoLogin() {
+    return ScenarioContext.actual().getDatos().getOrDefault(DATO_METODO_LOGIN, "ninguno");
+  }
+
+  private static synchronized void exportador() {
+    if (exportador != null) {
+      return;
+    }
+    exportador = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "exportador-metricas");
+      t.setDaemon(true);
+      return t;
+    });
+    exportador.scheduleWithFixedDelay(Metricas::escribir, INTERVALO_SEGUNDOS, INTERVALO_SEGUNDOS, TimeUnit.SECONDS);
+    FinSuite.registrar("metricas", Metricas::cerrar);
+  }
+
+  private static void cerrar() {
+    synchronized (Metricas.class) {
+      if (exportador != null) {
+        exportador.shutdownNow();
+      }
+    }
+    // El tiempo de los reportes aún en cola también debe quedar en el archivo final
+    EscritorReportes.esperarPendientes();
+    escribir();
+    System.out.println("📈 Métricas en: " + archivo().toAbsolutePath());
+  }
+
+  private static Path archivo() {
+    return Paths.get(DIRECTORIO, PREFIJO_ARCHIVO + instancia() + ".prom");
+  }
+
+  private static synchronized String instancia() {
+    if (instancia == null) {
+      instancia = reclamarInstancia();
+    }
+    return instancia;
+  }
+
+  /**
+   * Primera ranura sin reclamo de esta ejecución: cada proceso crea de forma atómica
+   * .&lt;instancia&gt;.&lt;ejecución&gt;.reclamo en el directorio de métricas.
+   */
+  private static String reclamarInstancia() {
+    Path directorio = Paths.get(DIRECTORIO);
+    try {
+      Files.createDirectories(directorio);
+      for (int numero = 1; ; numero++) {
+        String candidata = "fork" + numero;
+        try {
+          Files.createFile(directorio.resolve(reclamo(candidata)));
+        } catch (FileAlreadyExistsException e) {
+          continue;
+        }
+        borrarCorridasAnteriores(directorio);
+        return candidata;
+      }
+    } catch (IOException e) {
+      LOGGER.warning("No se pudo reclamar la instancia de métricas: " + e.getMessage());
+      return DirectoriosEvidencia.idFork();
+    }
+  }
+
+  private static String reclamo(String ranura) {
+    return "." + ranura + "." + DirectoriosEvidencia.idEjecucion() + SUFIJO_RECLAMO;
+  }
+
+  /**
+   * Borra los reclamos de otras ejecuciones y los .prom de instancias que nadie reclamó en esta.
+   */
+  private static void borrarCorridasAnteriores(Path directorio) throws IOException {
+    String sufijoEjecucion = "." + DirectoriosEvidencia.idEjecucion() + SUFIJO_RECLAMO;
+    try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio)) {
+      for (Path archivo : archivos) {
+        String nombre = archivo.getFileName().toString();
+        if (nombre.endsWith(SUFIJO_RECLAMO) && !nombre.endsWith(sufijoEjecucion)) {
+          Files.deleteIfExists(archivo);
+        } else if (nombre.startsWith(PREFIJO_ARCHIVO) && nombre.endsWith(".prom")) {
+          String suya = nombre.substring(PREFIJO_ARCHIVO.length(), nombre.length() - ".prom".length());
+          if (!Files.exists(directorio.resolve(reclamo(suya)))) {
+            Files.deleteIfExists(archivo);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Reescribe el archivo de métricas: temporal en el mismo directorio y movimiento atómico.
+   */
+  public static synchronized void escribir() {
+    Path archivo = archivo();
+    try {
+      Files.createDirectories(archivo.getParent());
+      Path temporal = Files.createTempFile(archivo.getParent(), "metricas_", ".tmp");
+      Files.write(temporal, REGISTRO.exportar("instancia", instancia()).getBytes(StandardCharsets.UTF_8));
+      Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOGGER.warning("No se pudieron escribir las métricas: " + e.getMessage());
+    }
+  }
+}
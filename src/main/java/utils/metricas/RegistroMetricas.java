@@ -0,0 +1,224 @@
+package utils.metricas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registro mínimo de contadores, histogramas y resúmenes (cuantiles) con etiquetas, exportable en el
+ * formato de texto de Prometheus/OpenMetrics.
+ *
+ * Cada familia se declara una vez con sus nombres de etiqueta; las series se crean al primer uso con
+ * los valores de etiqueta en el mismo orden. Seguro entre hilos.
+ */
+public class RegistroMetricas {
+
+  private enum Tipo { COUNTER, HISTOGRAM, SUMMARY }
+
+  // Observaciones recientes que conserva cada serie de un resumen para calcular sus cuantiles
+  private static final int MUESTRAS_RESUMEN = 1000;
+
+  private final Map<String, Familia> familias = new ConcurrentSkipListMap<>();
+
+  private static class Familia {
+    private final String nombre;
+    private final String ayuda;
+    private final Tipo tipo;
+    private final String[] etiquetas;
+    private final double[] limites;
+    private final Map<List<String>, Serie> series = new ConcurrentHashMap<>();
+
+    private Familia(String nombre, String ayuda, Tipo tipo, String[] etiquetas, double[] limites) {
+      this.nombre = nombre;
+      this.ayuda = ayuda;
+      this.tipo = tipo;
+      this.etiquetas = etiquetas;
+      this.limites = limites;
+    }
+  }
+
+  /**
+   * Cuenta por límite (no acumulada), suma y total de observaciones; en un resumen, las últimas
+   * observaciones en un búfer circular.
+   */
+  private static class Serie {
+    private final long[] cubetas;
+    private final double[] muestras;
+    private double suma;
+    private long cuenta;
+
+    private Serie(Familia familia) {
+      cubetas = new long[familia.tipo == Tipo.HISTOGRAM ? familia.limites.length : 0];
+      muestras = new double[familia.tipo == Tipo.SUMMARY ? MUESTRAS_RESUMEN : 0];
+    }
+  }
+
+  public void registrarContador(String nombre, String ayuda, String... etiquetas) {
+    familias.putIfAbsent(nombre, new Familia(nombre, ayuda, Tipo.COUNTER, etiquetas, new double[0]));
+  }
+
+  /**
+   * @param limites límites superiores de las cubetas, en orden creciente (la cubeta +Inf es implícita)
+   */
+  public void registrarHistograma(String nombre, String ayuda, double[] limites, String... etiquetas) {
+    familias.putIfAbsent(nombre, new Familia(nombre, ayuda, Tipo.HISTOGRAM, etiquetas, limites.clone()));
+  }
+
+  /**
+   * @param cuantiles cuantiles a exponer, entre 0 y 1 (p. ej. 0.5, 0.9, 0.99)
+   */
+  public void registrarResumen(String nombre, String ayuda, double[] cuantiles, String... etiquetas) {
+    familias.putIfAbsent(nombre, new Familia(nombre, ayuda, Tipo.SUMMARY, etiquetas, cuantiles.clone()));
+  }
+
+  public void incrementar(String nombre, String... valores) {
+    Serie serie = serie(nombre, valores);
+    synchronized (serie) {
+      serie.cuenta++;
+    }
+  }
+
+  public void observar(String nombre, double valor, String... valores) {
+    Familia familia = familia(nombre);
+    Serie serie = serie(nombre, valores);
+    int i = Arrays.binarySearch(familia.limites, valor);
+    int cubeta = i >= 0 ? i : -i - 1;
+    synchronized (serie) {
+      if (familia.tipo == Tipo.SUMMARY) {
+        serie.muestras[(int) (serie.cuenta % MUESTRAS_RESUMEN)] = valor;
+      } else if (cubeta < serie.cubetas.length) {
+        serie.cubetas[cubeta]++;
+      }
+      serie.suma += valor;
+      serie.cuenta++;
+    }
+  }
+
+  private Familia familia(String nombre) {
+    Familia familia = familias.get(nombre);
+    if (familia == null) {
+      throw new IllegalArgumentException("Métrica no registrada: " + nombre);
+    }
+    return familia;
+  }
+
+  private Serie serie(String nombre, String... valores) {
+    Familia familia = familia(nombre);
+    if (valores.length != familia.etiquetas.length) {
+      throw new IllegalArgumentException("La métrica " + nombre + " espera las etiquetas "
+              + Arrays.toString(familia.etiquetas));
+    }
+    return familia.series.computeIfAbsent(Arrays.asList(valores.clone()), k -> new Serie(familia));
+  }
+
+  /**
+   * Texto en el formato de exposición de Prometheus (el que lee el textfile collector de
+   * node-exporter); los contadores terminan en _total, los histogramas exponen _bucket, _sum y _count
+   * y los resúmenes sus cuantiles, _sum y _count.
+   */
+  public String exportar() {
+    return exportar(null, null);
+  }
+
+  /**
+   * Como {@link #exportar()}, con una etiqueta común antepuesta a todas las series (p. ej. la instancia
+   * que escribe el archivo, para que las series de varios procesos no se repitan).
+   */
+  public String exportar(String etiquetaComun, String valorComun) {
+    String comun = etiquetaComun == null
+            ? "" : etiquetas(new String[]{etiquetaComun}, Arrays.asList(valorComun));
+    StringBuilder texto = new StringBuilder();
+    for (Familia familia : familias.values()) {
+      texto.append("# HELP ").append(familia.nombre).append(' ').append(familia.ayuda).append('\n');
+      texto.append("# TYPE ").append(familia.nombre).append(' ')
+              .append(familia.tipo.name().toLowerCase(Locale.ROOT)).append('\n');
+      List<Map.Entry<List<String>, Serie>> series = new ArrayList<>(familia.series.entrySet());
+      series.sort((a, b) -> a.getKey().toString().compareTo(b.getKey().toString()));
+      for (Map.Entry<List<String>, Serie> entrada : series) {
+        Serie serie = entrada.getValue();
+        String etiquetas = etiquetas(familia.etiquetas, entrada.getKey());
+        if (!comun.isEmpty()) {
+          etiquetas = etiquetas.isEmpty() ? comun : comun + "," + etiquetas;
+        }
+        synchronized (serie) {
+          if (familia.tipo == Tipo.COUNTER) {
+            linea(texto, familia.nombre, etiquetas, null, serie.cuenta);
+            continue;
+          }
+          if (familia.tipo == Tipo.SUMMARY) {
+            double[] ordenadas = Arrays.copyOf(serie.muestras, (int) Math.min(serie.cuenta, MUESTRAS_RESUMEN));
+            Arrays.sort(ordenadas);
+            for (double cuantil : familia.limites) {
+              texto.append(familia.nombre).append(llaves(etiquetas, "quantile", numero(cuantil))).append(' ')
+                      .append(numero(percentil(ordenadas, cuantil))).append('\n');
+            }
+            texto.append(familia.nombre).append("_sum").append(llaves(etiquetas, null)).append(' ')
+                    .append(numero(serie.suma)).append('\n');
+            linea(texto, familia.nombre + "_count", etiquetas, null, serie.cuenta);
+            continue;
+          }
+          long acumulado = 0;
+          for (int i = 0; i < familia.limites.length; i++) {
+            acumulado += serie.cubetas[i];
+            linea(texto, familia.nombre + "_bucket", etiquetas, numero(familia.limites[i]), acumulado);
+          }
+          linea(texto, familia.nombre + "_bucket", etiquetas, "+Inf", serie.cuenta);
+          texto.append(familia.nombre).append("_sum").append(llaves(etiquetas, null)).append(' ')
+                  .append(numero(serie.suma)).append('\n');
+          linea(texto, familia.nombre + "_count", etiquetas, null, serie.cuenta);
+        }
+      }
+    }
+    return texto.toString();
+  }
+
+  /**
+   * Percentil por rango más cercano sobre valores ordenados (0 si no hay valores).
+   */
+  public static double percentil(double[] ordenados, double cuantil) {
+    if (ordenados.length == 0) {
+      return 0;
+    }
+    int rango = (int) Math.ceil(cuantil * ordenados.length);
+    return ordenados[Math.max(0, Math.min(ordenados.length - 1, rango - 1))];
+  }
+
+  private static void linea(StringBuilder texto, String nombre, String etiquetas, String le, long valor) {
+    texto.append(nombre).append(llaves(etiquetas, le)).append(' ').append(valor).append('\n');
+  }
+
+  private static String etiquetas(String[] nombres, List<String> valores) {
+    StringBuilder texto = new StringBuilder();
+    for (int i = 0; i < nombres.length; i++) {
+      if (i > 0) {
+        texto.append(',');
+      }
+      String valor = valores.get(i) == null ? "" : valores.get(i);
+      texto.append(nombres[i]).append("=\"")
+              .append(valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+              .append('"');
+    }
+    return texto.toString();
+  }
+
+  private static String llaves(String etiquetas, String le) {
+    return llaves(etiquetas, "le", le);
+  }
+
+  private static String llaves(String etiquetas, String extra, String valorExtra) {
+    if (valorExtra != null) {
+      String par = extra + "=\"" + valorExtra + "\"";
+      etiquetas = etiquetas.isEmpty() ? par : etiquetas + "," + par;
+    }
+    return etiquetas.isEmpty() ? "" : "{" + etiquetas + "}";
+  }
+
+  private static String numero(double valor) {
+    return valor == Math.rint(valor) && Math.abs(valor) < 1e15
+            ? String.valueOf((long) valor) : String.valueOf(valor);
+  }
+}
@@ -6,6 +6,8 @@ import org.junit.runner.Runner;
 import org.junit.runner.notification.RunNotifier;
 import utils.BeforeSuite;
 import utils.DataToFeature;
+import utils.FinSuite;
+import utils.ScenarioContext;
 import utils.SeleniumFunctions;
 
 import java.io.IOException;
@@ -57,7 +59,7 @@ public class CustomRunner extends Runner {
   public void run(RunNotifier notifier) {
     try {
       String environment = readProperties("Environment");
-      functions.saveInScenario("Environment", environment);
+      ScenarioContext.guardarDatoSuite("Environment", environment);
 
       DataToFeature.backUpFeaturesFile();
       runAnnotatedMethods(BeforeSuite.class);
@@ -66,6 +68,7 @@ public class CustomRunner extends Runner {
       e.printStackTrace();
     }
     cucumberWithSerenity.run(notifier);
+    FinSuite.ejecutar();
     DataToFeature.restoreBackUpFeatures();
   }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package runners;
+
+import net.serenitybdd.cucumber.CucumberWithSerenity;
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.ParentRunner;
+import org.junit.runners.model.RunnerScheduler;
+import utils.ColaEscenarios;
+import utils.FinSuite;
+import utils.PoolDispositivos;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runner que ejecuta los escenarios en paralelo dentro de la JVM, un hilo por dispositivo.
+ *
+ * Con un solo dispositivo (o sin la propiedad dispositivos) se comporta igual que
+ * CucumberWithSerenity. Con varios, cada hilo arma su propio CucumberWithSerenity (runtime, glue y
+ * reporter de Serenity propios, porque el runtime de Cucumber no es seguro entre hilos), se asigna
+ * un dispositivo y recorre los escenarios en el mismo orden que los demás: solo ejecuta los que
+ * logra reclamar en el conjunto compartido, de modo que cada escenario corre una sola vez, en el
+ * primer dispositivo libre. Driver y ScenarioContext son por hilo.
+ *
+ * Los reclamos pasan por {@link ColaEscenarios}: con la tarea gradle testDistribuido la misma cola
+ * se comparte entre varios procesos (uno por dispositivo), que van tomando el siguiente escenario
+ * libre en lugar de repartirse la suite de antemano.
+ *
+ * Requiere webdriver.driver=provided con webdriver.provided.mydriver=utils.MyDriver para que cada
+ * hilo abra su sesión contra su dispositivo.
+ */
+public class DispositivosRunner extends Runner {
+
+  private final Class<?> clase;
+  private final CucumberWithSerenity plantilla;
+
+  public DispositivosRunner(Class<?> clase) throws Exception {
+    this.clase = clase;
+    this.plantilla = new CucumberWithSerenity(clase);
+  }
+
+  @Override
+  public Description getDescription() {
+    return plantilla.getDescription();
+  }
+
+  @Override
+  public void run(RunNotifier notifier) {
+    List<PoolDispositivos.Dispositivo> dispositivos = PoolDispositivos.configurados();
+    if (dispositivos.size() <= 1 && !ColaEscenarios.distribuida()) {
+      if (!dispositivos.isEmpty()) {
+        PoolDispositivos.asignar(dispositivos.get(0));
+      }
+      plantilla.run(notifier);
+      FinSuite.ejecutar();
+      return;
+    }
+
+    if (dispositivos.isEmpty()) {
+      dispositivos = Collections.singletonList(null);
+    }
+    System.out.println("📱 Ejecución en paralelo sobre " + dispositivos.size() + " dispositivo(s): " + dispositivos
+            + (ColaEscenarios.distribuida() ? " (cola compartida entre procesos)" : ""));
+    ExecutorService hilos = Executors.newFixedThreadPool(dispositivos.size());
+    List<Future<?>> trabajadores = new ArrayList<>();
+    for (PoolDispositivos.Dispositivo dispositivo : dispositivos) {
+      trabajadores.add(hilos.submit(() -> {
+        if (dispositivo != null) {
+          Thread.currentThread().setName("dispositivo-" + dispositivo.getUdid());
+          PoolDispositivos.asignar(dispositivo);
+        }
+        try {
+          CucumberWithSerenity cucumber = new CucumberWithSerenity(clase);
+          List<?> features = hijos(cucumber);
+          for (int i = 0; i < features.size(); i++) {
+            ((ParentRunner<?>) features.get(i)).setScheduler(
+                    new PlanificadorReclamos(clase.getName() + "_f" + i));
+          }
+          cucumber.run(notifier);
+        } finally {
+          PoolDispositivos.liberar();
+        }
+        return null;
+      }));
+    }
+    hilos.shutdown();
+    for (Future<?> trabajador : trabajadores) {
+      try {
+        trabajador.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        System.err.println("❌ Error en el hilo de un dispositivo: " + e.getCause());
+        e.getCause().printStackTrace();
+      }
+    }
+    FinSuite.ejecutar();
+  }
+
+  private static List<?> hijos(ParentRunner<?> runner) throws ReflectiveOperationException {
+    Method getChildren = ParentRunner.class.getDeclaredMethod("getChildren");
+    getChildren.setAccessible(true);
+    return (List<?>) getChildren.invoke(runner);
+  }
+
+  /**
+   * Ejecuta el k-ésimo escenario de la feature solo si este hilo lo reclama primero.
+   */
+  private static class PlanificadorReclamos implements RunnerScheduler {
+    private final String feature;
+    private int siguiente = 0;
+
+    private PlanificadorReclamos(String feature) {
+      this.feature = feature;
+    }
+
+    @Override
+    public void schedule(Runnable escenario) {
+      if (ColaEscenarios.reclamar(feature + "_e" + siguiente++)) {
+        escenario.run();
+      }
+    }
+
+    @Override
+    public void finished() {
+    }
+  }
+}
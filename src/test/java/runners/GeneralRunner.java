@@ -2,7 +2,6 @@ package runners;
 
 import cucumber.api.CucumberOptions;
 import cucumber.api.SnippetType;
-import net.serenitybdd.cucumber.CucumberWithSerenity;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.junit.runner.RunWith;
 import utils.BeforeSuite;
@@ -10,7 +9,7 @@ import utils.DataToFeature;
 
 import java.io.IOException;
 
-@RunWith(CucumberWithSerenity.class)
+@RunWith(DispositivosRunner.class)
 @CucumberOptions(
         features = "src/test/resources/features",
         glue = {"stepDefinitions", "utils", "hooks", "listeners"},
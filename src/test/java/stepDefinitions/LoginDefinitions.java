@@ -6,17 +6,16 @@ import cucumber.api.java.en.Given;
 import cucumber.api.java.en.Then;
 import cucumber.api.java.en.When;
 import interactions.wait.WaitFor;
+import interactions.wait.WaitForElement;
 import interactions.wait.WaitForResponse;
 
 import models.User;
 import net.serenitybdd.screenplay.actors.OnStage;
 import net.serenitybdd.screenplay.actors.OnlineCast;
-import net.serenitybdd.screenplay.waits.WaitUntil;
 import tasks.Login.*;
 import tasks.Ollama.ValidateLocatorsWithOllama;
 import utils.EvidenciaUtils;
 import utils.TestDataProvider;
-import utils.WordAppium;
 
 import static net.serenitybdd.screenplay.actors.OnStage.theActorCalled;
 import static net.serenitybdd.screenplay.actors.OnStage.theActorInTheSpotlight;
@@ -32,7 +31,6 @@ public class LoginDefinitions {
     @Before
     public void initScenario(Scenario scenario) {
         OnStage.setTheStage(new OnlineCast());
-        WordAppium.inicializarPlantillaReporte();
         EvidenciaUtils.reiniciarContador(); // Reinicia el conteo de pasos para este escenario
     }
 
@@ -41,8 +39,8 @@ public class LoginDefinitions {
     public void abrirSuperApp() {
         theActorCalled("actor")
                 .attemptsTo(
-                        WaitUntil.the(LOADING_SPLASH, isNotPresent()),
-                        WaitUntil.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(40).seconds(),
+                        WaitForElement.the(LOADING_SPLASH, isNotPresent()),
+                        WaitForElement.the(LOADING_ESPERA_UN_MOMENTO, isNotPresent()).forNoMoreThan(40).seconds(),
                         WaitFor.aTime(2000)
                 );
     }
@@ -0,0 +1,49 @@
+package utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class BenchmarkArranqueTest {
+
+    @Test
+    public void descartaLosAtipicosPorDesviacionDeLaMediana() {
+        Map<String, Object> estadisticas = BenchmarkArranque.estadisticas(
+                Arrays.asList(1030.0, 1000.0, 5000.0, 1010.0, 1020.0));
+
+        assertEquals(5, estadisticas.get("n"));
+        assertEquals(1, estadisticas.get("atipicos"));
+        assertEquals(1020.0, estadisticas.get("mediana"));
+        assertEquals(10.0, estadisticas.get("mad"));
+        assertEquals(1015.0, estadisticas.get("media"));
+        assertEquals(1030.0, estadisticas.get("p90"));
+        assertEquals(1000.0, estadisticas.get("min"));
+        assertEquals(1030.0, estadisticas.get("max"));
+    }
+
+    @Test
+    public void conMadCeroConservaTodasLasMuestras() {
+        Map<String, Object> estadisticas = BenchmarkArranque.estadisticas(
+                Arrays.asList(800.0, 800.0, 800.0, 1500.0));
+
+        assertEquals(0, estadisticas.get("atipicos"));
+        assertEquals(800.0, estadisticas.get("mediana"));
+        assertEquals(0.0, estadisticas.get("mad"));
+        assertEquals(975.0, estadisticas.get("media"));
+        assertEquals(1500.0, estadisticas.get("max"));
+    }
+
+    @Test
+    public void conNumeroParDeMuestrasPromediaLasCentralesYRedondeaAUnDecimal() {
+        Map<String, Object> estadisticas = BenchmarkArranque.estadisticas(
+                Arrays.asList(100.0, 101.0, 102.0, 104.0));
+
+        assertEquals(101.5, estadisticas.get("mediana"));
+        assertEquals(1.0, estadisticas.get("mad"));
+        assertEquals(101.8, estadisticas.get("media"));
+        assertEquals(0, estadisticas.get("atipicos"));
+    }
+}
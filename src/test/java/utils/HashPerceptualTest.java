@@ -0,0 +1,59 @@
+package utils;
+
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HashPerceptualTest {
+
+    @Test
+    public void imagenesIgualesTienenDistanciaCero() {
+        long hash = HashPerceptual.calcular(degradado(false));
+
+        assertEquals(0, HashPerceptual.distancia(hash, HashPerceptual.calcular(degradado(false))));
+    }
+
+    @Test
+    public void unCambioMenorNoAlejaElHash() {
+        BufferedImage original = degradado(false);
+        BufferedImage conRuido = degradado(false);
+        conRuido.setRGB(10, 10, Color.RED.getRGB());
+
+        int distancia = HashPerceptual.distancia(HashPerceptual.calcular(original), HashPerceptual.calcular(conRuido));
+
+        assertTrue("distancia " + distancia, distancia <= 2);
+    }
+
+    @Test
+    public void unaPantallaDistintaQuedaLejos() {
+        int distancia = HashPerceptual.distancia(
+                HashPerceptual.calcular(degradado(false)), HashPerceptual.calcular(degradado(true)));
+
+        assertTrue("distancia " + distancia, distancia > 32);
+    }
+
+    @Test
+    public void laDistanciaEsElNumeroDeBitsDistintos() {
+        assertEquals(0, HashPerceptual.distancia(0L, 0L));
+        assertEquals(2, HashPerceptual.distancia(0b1011L, 0b0010L));
+        assertEquals(64, HashPerceptual.distancia(0L, -1L));
+    }
+
+    /** Degradado horizontal de 360x640, de claro a oscuro o al revés. */
+    private static BufferedImage degradado(boolean invertido) {
+        BufferedImage imagen = new BufferedImage(360, 640, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = imagen.createGraphics();
+        for (int x = 0; x < imagen.getWidth(); x++) {
+            int nivel = 255 * x / (imagen.getWidth() - 1);
+            g.setColor(new Color(invertido ? 255 - nivel : nivel, 90, 200));
+            g.fillRect(x, 0, 1, imagen.getHeight());
+        }
+        g.dispose();
+        return imagen;
+    }
+}
@@ -0,0 +1,69 @@
+package utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MedicionJankTest {
+
+    @Test
+    public void leeLosFotogramasValidosOrdenadosPorVsync() {
+        List<String> salida = Arrays.asList(
+                "Applications Graphics Acceleration Info:",
+                "Window: com.clarocolombia.miclaro/com.claro.superapp.MainActivity",
+                "---PROFILEDATA---",
+                "Flags,IntendedVsync,Vsync,OldestInputEvent,FrameCompleted,",
+                "0,3000,3000,0,19000,",
+                "0,1000,1000,0,17000,",
+                "1,2000,2000,0,60000,",
+                "0,0,0,0,5000,",
+                "0,4000,4000,0,4000,",
+                "---PROFILEDATA---",
+                "Total frames rendered: 5");
+
+        List<long[]> fotogramas = MedicionJank.leerFramestats(salida);
+
+        assertEquals(2, fotogramas.size());
+        assertArrayEquals(new long[]{1000, 17000}, fotogramas.get(0));
+        assertArrayEquals(new long[]{3000, 19000}, fotogramas.get(1));
+    }
+
+    @Test
+    public void releeLasColumnasEnCadaVentana() {
+        List<String> salida = Arrays.asList(
+                "---PROFILEDATA---",
+                "Flags,IntendedVsync,FrameCompleted,",
+                "0,5000,9000,",
+                "---PROFILEDATA---",
+                "---PROFILEDATA---",
+                "Flags,Vsync,FrameCompleted,IntendedVsync,",
+                "0,1,8000,2000,",
+                "---PROFILEDATA---");
+
+        List<long[]> fotogramas = MedicionJank.leerFramestats(salida);
+
+        assertEquals(2, fotogramas.size());
+        assertArrayEquals(new long[]{2000, 8000}, fotogramas.get(0));
+        assertArrayEquals(new long[]{5000, 9000}, fotogramas.get(1));
+    }
+
+    @Test
+    public void ignoraFilasFueraDeLaSeccionOIlegibles() {
+        List<String> salida = Arrays.asList(
+                "Flags,IntendedVsync,FrameCompleted,",
+                "0,1000,2000,",
+                "---PROFILEDATA---",
+                "0,1000,2000,",
+                "Flags,IntendedVsync,FrameCompleted,",
+                "x,1000,2000,",
+                "0,1000,",
+                "---PROFILEDATA---");
+
+        assertTrue(MedicionJank.leerFramestats(salida).isEmpty());
+    }
+}
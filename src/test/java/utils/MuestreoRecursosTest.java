@@ -0,0 +1,103 @@
+package utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MuestreoRecursosTest {
+
+    @Test
+    public void leeMemoriaDeAndroid10EnAdelante() {
+        MuestreoRecursos.Muestra muestra = MuestreoRecursos.leer(new MuestreoRecursos.Sesion(null), salida(
+                "cpu  1000 0 500 8000 0 0 0 0 0 0", 100, 20, 0, 0,
+                "            TOTAL PSS:   187654            TOTAL RSS:   250000      TOTAL SWAP PSS:       12",
+                "             Graphics:    40960                          45000"), "Ingreso al login");
+
+        assertEquals("Ingreso al login", muestra.paso);
+        assertEquals(187654L, muestra.pssKb);
+        assertEquals(40960L, muestra.graficosKb);
+        assertTrue(Double.isNaN(muestra.cpu));
+    }
+
+    @Test
+    public void leeLaFilaTotalDeAndroid9() {
+        MuestreoRecursos.Muestra muestra = MuestreoRecursos.leer(new MuestreoRecursos.Sesion(null), salida(
+                "cpu  1000 0 500 8000 0 0 0 0 0 0", 100, 20, 0, 0,
+                "                TOTAL   154321    98765     4321      0   200000   180000    15000",
+                "            Graphics:    30000"), "");
+
+        assertEquals(154321L, muestra.pssKb);
+        assertEquals(30000L, muestra.graficosKb);
+    }
+
+    @Test
+    public void calculaCpuYFotogramasComoDiferenciaConLaMuestraAnterior() {
+        MuestreoRecursos.Sesion sesion = new MuestreoRecursos.Sesion(null);
+        MuestreoRecursos.Muestra primera = MuestreoRecursos.leer(sesion, salida(
+                "cpu  1000 0 500 8000 0 0 0 0 0 0", 100, 20, 50, 2, "TOTAL PSS: 1000"), "paso");
+        MuestreoRecursos.Muestra segunda = MuestreoRecursos.leer(sesion, salida(
+                "cpu  1100 0 600 8200 0 0 0 0 0 0", 150, 30, 80, 5, "TOTAL PSS: 1000"), "paso");
+
+        assertTrue(Double.isNaN(primera.cpu));
+        assertEquals(0L, primera.fotogramas);
+        assertEquals(0L, primera.jank);
+        // (150 + 30) - (100 + 20) ticks del proceso sobre 400 ticks totales
+        assertEquals(15.0, segunda.cpu, 0.001);
+        assertEquals(30L, segunda.fotogramas);
+        assertEquals(3L, segunda.jank);
+    }
+
+    @Test
+    public void unReinicioDeGfxinfoCuentaLosFotogramasDesdeCero() {
+        MuestreoRecursos.Sesion sesion = new MuestreoRecursos.Sesion(null);
+        MuestreoRecursos.leer(sesion, salida("cpu  1000 0 0 0", 100, 0, 500, 40, "TOTAL PSS: 1000"), "paso");
+        MuestreoRecursos.Muestra muestra = MuestreoRecursos.leer(sesion,
+                salida("cpu  1100 0 0 0", 110, 0, 12, 1, "TOTAL PSS: 1000"), "paso");
+
+        assertEquals(12L, muestra.fotogramas);
+        assertEquals(1L, muestra.jank);
+    }
+
+    @Test
+    public void unPidNuevoReiniciaLosAcumuladosDelProceso() {
+        MuestreoRecursos.Sesion sesion = new MuestreoRecursos.Sesion(null);
+        MuestreoRecursos.leer(sesion, salida("cpu  1000 0 0 0", 100, 0, 500, 40, "TOTAL PSS: 1000"), "paso");
+        List<String> otraInstancia = new ArrayList<>();
+        for (String linea : salida("cpu  1100 0 0 0", 5, 0, 30, 2, "TOTAL PSS: 1000")) {
+            otraInstancia.add(linea.replace("4321", "5555"));
+        }
+
+        MuestreoRecursos.Muestra muestra = MuestreoRecursos.leer(sesion, otraInstancia, "paso");
+
+        assertTrue(Double.isNaN(muestra.cpu));
+        assertEquals(0L, muestra.fotogramas);
+    }
+
+    @Test
+    public void sinLaAppEnEjecucionNoHayMuestra() {
+        assertNull(MuestreoRecursos.leer(new MuestreoRecursos.Sesion(null),
+                Arrays.asList("pid", "cpu  1000 0 500 8000 0 0 0 0 0 0"), "paso"));
+    }
+
+    /**
+     * Salida del comando de muestreo para el pid 4321 con el utime y stime dados.
+     */
+    private static List<String> salida(String cpu, long utime, long stime, long fotogramas, long jank,
+                                       String... memoria) {
+        List<String> lineas = new ArrayList<>();
+        lineas.add("pid 4321");
+        lineas.add(cpu);
+        lineas.add("4321 (laro.miclaro) S 600 600 0 0 -1 1077952832 5000 0 10 0 " + utime + " " + stime
+                + " 0 0 10 -10 60 0 1234 0 0");
+        lineas.addAll(Arrays.asList(memoria));
+        lineas.add("Total frames rendered: " + fotogramas);
+        lineas.add("Janky frames: " + jank + " (" + (fotogramas == 0 ? 0 : 100 * jank / fotogramas) + "%)");
+        return lineas;
+    }
+}
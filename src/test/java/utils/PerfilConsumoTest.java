@@ -0,0 +1,73 @@
+package utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PerfilConsumoTest {
+
+    @Test
+    public void sumaLasCubetasDelUidSinTagEnNetstats() {
+        List<String> salida = Arrays.asList(
+                "Active interfaces:",
+                "  iface=wlan0 ident=[{type=WIFI, subType=COMBINED}]",
+                "Dev stats:",
+                "  ident=[{type=WIFI}] uid=10123 set=DEFAULT tag=0x0",
+                "      st=1700000000 rb=999999 rp=1 tb=999999 tp=1 op=0",
+                "Uid stats:",
+                "  ident=[{type=WIFI, subType=COMBINED}] uid=10123 set=DEFAULT tag=0x0",
+                "    NetworkStatsHistory: bucketDuration=7200",
+                "      st=1700000000 rb=1000 rp=10 tb=200 tp=4 op=0",
+                "      st=1700007200 rb=500 rp=5 tb=50 tp=1 op=0",
+                "  ident=[{type=MOBILE, subType=COMBINED}] uid=10123 set=FOREGROUND tag=0x0",
+                "    NetworkStatsHistory: bucketDuration=7200",
+                "      st=1700000000 rb=20 rp=1 tb=30 tp=1 op=0",
+                "  ident=[{type=WIFI, subType=COMBINED}] uid=10123 set=DEFAULT tag=0x1f",
+                "      st=1700000000 rb=70000 rp=1 tb=70000 tp=1 op=0",
+                "  ident=[{type=WIFI, subType=COMBINED}] uid=101234 set=DEFAULT tag=0x0",
+                "      st=1700000000 rb=80000 rp=1 tb=80000 tp=1 op=0",
+                "Uid tag stats:",
+                "  ident=[{type=WIFI, subType=COMBINED}] uid=10123 set=DEFAULT tag=0x0",
+                "      st=1700000000 rb=90000 rp=1 tb=90000 tp=1 op=0");
+
+        PerfilConsumo.Instantanea instantanea = new PerfilConsumo.Instantanea();
+        PerfilConsumo.leerRedNetstats(instantanea, salida, "10123");
+
+        assertEquals(1520L, instantanea.recibidos);
+        assertEquals(280L, instantanea.enviados);
+    }
+
+    @Test
+    public void sinDatosDelUidLaRedQuedaSinLeer() {
+        PerfilConsumo.Instantanea instantanea = new PerfilConsumo.Instantanea();
+        PerfilConsumo.leerRedNetstats(instantanea, Arrays.asList(
+                "Uid stats:",
+                "  ident=[{type=WIFI}] uid=10999 set=DEFAULT tag=0x0",
+                "      st=1700000000 rb=1000 rp=10 tb=200 tp=4 op=0"), "10123");
+        PerfilConsumo.leerRedQtaguid(instantanea, Collections.emptyList(), "10123");
+
+        assertEquals(-1L, instantanea.recibidos);
+        assertEquals(-1L, instantanea.enviados);
+    }
+
+    @Test
+    public void sumaLasFilasSinTagDeQtaguid() {
+        List<String> salida = Arrays.asList(
+                "idx iface acct_tag_hex uid_tag_int cnt_set rx_bytes rx_packets tx_bytes tx_packets",
+                "2 wlan0 0x0 10123 0 4000 40 1000 10",
+                "3 wlan0 0x0 10123 1 600 6 300 3",
+                "4 wlan0 0x3e800000000 10123 0 99999 9 99999 9",
+                "5 rmnet0 0x0 10123 0 25 1 75 1",
+                "6 wlan0 0x0 1012 0 88888 8 88888 8");
+
+        PerfilConsumo.Instantanea instantanea = new PerfilConsumo.Instantanea();
+        PerfilConsumo.leerRedQtaguid(instantanea, salida, "10123");
+
+        assertEquals(4625L, instantanea.recibidos);
+        assertEquals(1375L, instantanea.enviados);
+    }
+}
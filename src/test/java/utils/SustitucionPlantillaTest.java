@@ -0,0 +1,99 @@
+package utils;
+
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFHeader;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SustitucionPlantillaTest {
+
+    private static final Map<String, String> VALORES = new HashMap<>();
+
+    static {
+        VALORES.put("ESCENARIO", "Login exitoso");
+        VALORES.put("FECHA", "2024-05-01");
+    }
+
+    @Test
+    public void reemplazaUnMarcadorDentroDeUnSoloRun() {
+        List<String> textos = SustitucionPlantilla.sustituir(Arrays.asList("Escenario: {{ESCENARIO}}."), VALORES);
+
+        assertEquals(Arrays.asList("Escenario: Login exitoso."), textos);
+    }
+
+    @Test
+    public void reemplazaUnMarcadorPartidoEnVariosRunsConservandoLosRuns() {
+        List<String> textos = SustitucionPlantilla.sustituir(
+                Arrays.asList("Escenario: {{ESCE", "NA", "RIO}} del ", "{{FECHA}}"), VALORES);
+
+        assertEquals(Arrays.asList("Escenario: Login exitoso", "", " del ", "2024-05-01"), textos);
+    }
+
+    @Test
+    public void reemplazaLasLlavesPartidasEnSuPropioRun() {
+        List<String> textos = SustitucionPlantilla.sustituir(Arrays.asList("{", "{FECHA}", "}", " fin"), VALORES);
+
+        assertEquals("2024-05-01 fin", String.join("", textos));
+        assertEquals(4, textos.size());
+    }
+
+    @Test
+    public void dejaIntactosLosMarcadoresSinValor() {
+        List<String> textos = SustitucionPlantilla.sustituir(
+                Arrays.asList("{{OTRO}} y {{FEC", "HA}}"), VALORES);
+
+        assertEquals(Arrays.asList("{{OTRO}} y 2024-05-01", ""), textos);
+    }
+
+    @Test
+    public void ignoraLosRunsVaciosAlUbicarElMarcador() {
+        List<String> textos = SustitucionPlantilla.sustituir(Arrays.asList("", "{{FECHA}}", ""), VALORES);
+
+        assertEquals(Arrays.asList("", "2024-05-01", ""), textos);
+    }
+
+    @Test
+    public void aplicaEnTablasAnidadasYEncabezados() throws IOException {
+        XWPFDocument plantilla = new XWPFDocument();
+        XWPFHeader encabezado = plantilla.createHeader(HeaderFooterType.DEFAULT);
+        XWPFParagraph parrafoEncabezado = encabezado.createParagraph();
+        parrafoEncabezado.createRun().setText("Reporte {{ESC");
+        parrafoEncabezado.createRun().setText("ENARIO}}");
+
+        XWPFTable tabla = plantilla.createTable(1, 1);
+        XWPFTableCell celda = tabla.getRow(0).getCell(0);
+        celda.getParagraphs().get(0).createRun().setText("Fecha: {{FECHA}}");
+        XWPFTable anidada = new XWPFTable(celda.getCTTc().addNewTbl(), celda, 1, 1);
+        anidada.getRow(0).getCell(0).getParagraphs().get(0).createRun().setText("{{ESCENARIO}}");
+
+        XWPFDocument doc = recargar(plantilla);
+        SustitucionPlantilla.aplicar(doc, VALORES);
+        doc = recargar(doc);
+
+        assertEquals("Reporte Login exitoso", doc.getHeaderList().get(0).getText().trim());
+        XWPFTableCell celdaLeida = doc.getTables().get(0).getRow(0).getCell(0);
+        assertEquals("Fecha: 2024-05-01", celdaLeida.getParagraphs().get(0).getText());
+        assertEquals("Login exitoso", celdaLeida.getTables().get(0).getRow(0).getCell(0).getText());
+        assertTrue(doc.getDocument().toString().indexOf("{{") < 0);
+    }
+
+    private static XWPFDocument recargar(XWPFDocument doc) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        doc.write(salida);
+        return new XWPFDocument(new ByteArrayInputStream(salida.toByteArray()));
+    }
+}
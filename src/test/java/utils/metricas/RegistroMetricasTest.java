@@ -0,0 +1,98 @@
+package utils.metricas;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RegistroMetricasTest {
+
+    @Test
+    public void exportaContadoresConEtiquetasEscapadas() {
+        RegistroMetricas registro = new RegistroMetricas();
+        registro.registrarContador("pasos_total", "Pasos ejecutados", "resultado");
+        registro.incrementar("pasos_total", "ok");
+        registro.incrementar("pasos_total", "ok");
+        registro.incrementar("pasos_total", "falla \"grave\"");
+
+        assertEquals(Arrays.asList(
+                "# HELP pasos_total Pasos ejecutados",
+                "# TYPE pasos_total counter",
+                "pasos_total{resultado=\"falla \\\"grave\\\"\"} 1",
+                "pasos_total{resultado=\"ok\"} 2"), lineas(registro.exportar()));
+    }
+
+    @Test
+    public void exportaHistogramasConCubetasAcumuladas() {
+        RegistroMetricas registro = new RegistroMetricas();
+        registro.registrarHistograma("espera_segundos", "Duración de las esperas", new double[]{0.5, 2}, "tipo");
+        registro.observar("espera_segundos", 0.25, "visible");
+        registro.observar("espera_segundos", 0.5, "visible");
+        registro.observar("espera_segundos", 1.5, "visible");
+        registro.observar("espera_segundos", 7, "visible");
+
+        assertEquals(Arrays.asList(
+                "# HELP espera_segundos Duración de las esperas",
+                "# TYPE espera_segundos histogram",
+                "espera_segundos_bucket{tipo=\"visible\",le=\"0.5\"} 2",
+                "espera_segundos_bucket{tipo=\"visible\",le=\"2\"} 3",
+                "espera_segundos_bucket{tipo=\"visible\",le=\"+Inf\"} 4",
+                "espera_segundos_sum{tipo=\"visible\"} 9.25",
+                "espera_segundos_count{tipo=\"visible\"} 4"), lineas(registro.exportar()));
+    }
+
+    @Test
+    public void exportaResumenesConCuantilesYEtiquetaComun() {
+        RegistroMetricas registro = new RegistroMetricas();
+        registro.registrarResumen("comando_ms", "Duración de los comandos", new double[]{0.5, 0.9});
+        for (int i = 1; i <= 10; i++) {
+            registro.observar("comando_ms", i * 10);
+        }
+
+        assertEquals(Arrays.asList(
+                "# HELP comando_ms Duración de los comandos",
+                "# TYPE comando_ms summary",
+                "comando_ms{instancia=\"fork-1\",quantile=\"0.5\"} 50",
+                "comando_ms{instancia=\"fork-1\",quantile=\"0.9\"} 90",
+                "comando_ms_sum{instancia=\"fork-1\"} 550",
+                "comando_ms_count{instancia=\"fork-1\"} 10"), lineas(registro.exportar("instancia", "fork-1")));
+    }
+
+    @Test
+    public void ordenaLasFamiliasPorNombre() {
+        RegistroMetricas registro = new RegistroMetricas();
+        registro.registrarContador("z_total", "z");
+        registro.registrarContador("a_total", "a");
+        registro.incrementar("z_total");
+        registro.incrementar("a_total");
+
+        String texto = registro.exportar();
+
+        assertTrue(texto.indexOf("a_total 1") < texto.indexOf("z_total 1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rechazaEtiquetasQueNoCoincidenConLasDeclaradas() {
+        RegistroMetricas registro = new RegistroMetricas();
+        registro.registrarContador("pasos_total", "Pasos ejecutados", "resultado");
+        registro.incrementar("pasos_total");
+    }
+
+    @Test
+    public void calculaPercentilesPorRangoMasCercano() {
+        double[] valores = {10, 20, 30, 40};
+
+        assertEquals(0, RegistroMetricas.percentil(new double[0], 0.9), 0);
+        assertEquals(10, RegistroMetricas.percentil(valores, 0), 0);
+        assertEquals(20, RegistroMetricas.percentil(valores, 0.5), 0);
+        assertEquals(40, RegistroMetricas.percentil(valores, 0.9), 0);
+        assertEquals(40, RegistroMetricas.percentil(valores, 1), 0);
+    }
+
+    private static List<String> lineas(String texto) {
+        return Arrays.asList(texto.split("\n"));
+    }
+}